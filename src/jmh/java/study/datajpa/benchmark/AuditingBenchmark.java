@@ -0,0 +1,70 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Item;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.ItemRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < Auditing: 기본 vs high-throughput >
+ *
+ * batchSize 만큼의 Member, Item을 한 트랜잭션에서 저장한다.
+ * -> 엔티티마다 UUID(등록자), LocalDateTime(등록일/수정일)을 만드는지에 따라 할당량이 달라진다.
+ *
+ * ./gradlew jmh -Pjmh.include=AuditingBenchmark -Pjmh.args="-prof gc"  (gc.alloc.rate.norm 비교)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean highThroughput;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("datajpa.auditing.high-throughput=" + highThroughput);
+        memberRepository = context.getBean(MemberRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveMembers() {
+        List<Member> members = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            members.add(new Member("member" + i, i));
+        }
+        return memberRepository.saveAllBatched(members, 100);
+    }
+
+    @Benchmark
+    public int insertItems() {
+        List<Item> items = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            items.add(new Item(UUID.randomUUID().toString()));
+        }
+        return itemRepository.insertAll(items, 100);
+    }
+}
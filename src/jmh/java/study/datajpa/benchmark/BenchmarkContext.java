@@ -0,0 +1,42 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * 벤치마크용 Spring 컨텍스트
+ *
+ * -> 매번 새로운 in-memory H2 Database를 사용한다. (다른 벤치마크의 데이터에 영향을 받지 않도록)
+ * -> SQL 로그, p6spy, 통계 수집처럼 측정값을 왜곡하는 부가 기능은 끈다.
+ * -> application.yml 보다 우선순위가 높아야 하므로 커맨드 라인 인자(--key=value)로 넘긴다.
+ *    (SpringApplicationBuilder.properties()는 우선순위가 가장 낮은 기본값이다.)
+ * */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--decorator.datasource.enabled=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=off"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < flush 시점의 변경 감지 비용 >
+ *
+ * dataSize 만큼의 Member를 영속성 컨텍스트에 올려두고, 그 중 1%만 변경한 후 flush 하는 시간을 측정한다.
+ * -> 스냅샷 방식: 영속성 컨텍스트의 모든 엔티티의 모든 필드를 스냅샷과 비교한다.
+ * -> 바이트코드 향상(dirty tracking): 변경된 엔티티가 직접 기록한 필드만 확인한다.
+ *
+ * ./gradlew jmh -Pjmh.include=FlushBenchmark                      # 바이트코드 향상
+ * ./gradlew jmh -Pjmh.include=FlushBenchmark -PdisableEnhancement  # 스냅샷 비교
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FlushBenchmark {
+
+    private static final int MODIFY_INTERVAL = 100;
+
+    @Param({"10000", "100000"})
+    public int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                // 2차 캐시에 올리는 비용은 측정 대상이 아니다.
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        MemberRepositoryBenchmark.insertMembers(context, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /*
+     * 조회, 변경은 측정에서 제외한다. (flush만 측정)
+     * */
+    @Setup(Level.Invocation)
+    public void loadAndModify() {
+        entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        List<Member> members = entityManager.createQuery("select m from Member m", Member.class)
+                .getResultList();
+        for (int i = 0; i < members.size(); i += MODIFY_INTERVAL) {
+            Member member = members.get(i);
+            member.changeUsername(member.getUsername() + "*");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,119 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < 조회 hot path 벤치마크 >
+ *
+ * dataSize 만큼 Member를 저장해두고, 조회 쿼리의 평균 응답 시간을 측정한다.
+ * -> findPageByAge(count 쿼리 O) vs findSliceByAge(count 쿼리 X)
+ * -> findAll(@EntityGraph, fetch join) vs findMemberCustom(지연 로딩, N+1)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberRepositoryBenchmark {
+
+    static final int TEAM_COUNT = 10;
+    static final int AGE_COUNT = 100;
+
+    @Param({"100", "1000", "10000"})
+    public int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        insertMembers(context, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    static void insertMembers(ConfigurableApplicationContext context, int dataSize) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            teams.add(teamRepository.save(new Team("team" + i)));
+        }
+
+        List<Member> members = new ArrayList<>(dataSize);
+        for (int i = 0; i < dataSize; i++) {
+            members.add(new Member("member" + i, i % AGE_COUNT, teams.get(i % TEAM_COUNT)));
+        }
+        memberRepository.saveAllBatched(members, 100);
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameAndAgeGreaterThan() {
+        int index = ThreadLocalRandom.current().nextInt(dataSize);
+        return memberRepository.findByUsernameAndAgeGreaterThan("member" + index, -1);
+    }
+
+    @Benchmark
+    public Page<Member> findPageByAge() {
+        return memberRepository.findPageByAge(randomAge(), pageRequest());
+    }
+
+    @Benchmark
+    public Slice<Member> findSliceByAge() {
+        return memberRepository.findSliceByAge(randomAge(), pageRequest());
+    }
+
+    @Benchmark
+    public void findAllWithEntityGraph(Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findAll()) {
+                blackhole.consume(member.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void findAllLazy(Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findMemberCustom()) {
+                blackhole.consume(member.getTeam().getName());
+            }
+        });
+    }
+
+    private int randomAge() {
+        return ThreadLocalRandom.current().nextInt(AGE_COUNT);
+    }
+
+    private PageRequest pageRequest() {
+        return PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "username"));
+    }
+}
@@ -0,0 +1,60 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * < 쓰기 벤치마크 >
+ *
+ * save -> 단 건 저장 처리량 (ops/ms)
+ * bulkAgePlus -> dataSize 건을 대상으로 하는 벌크 UPDATE 처리량
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberWriteBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int dataSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        MemberRepositoryBenchmark.insertMembers(context, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member save() {
+        return memberRepository.save(new Member("saved" + sequence.incrementAndGet(), 10));
+    }
+
+    // @Modifying 쿼리는 쓰기 트랜잭션 안에서 실행해야 한다.
+    @Benchmark
+    public Integer bulkAgePlus() {
+        return transaction.execute(status -> memberRepository.bulkAgePlus(0));
+    }
+}
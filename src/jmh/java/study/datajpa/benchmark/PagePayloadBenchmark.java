@@ -0,0 +1,113 @@
+package study.datajpa.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.CompactPage;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.json.CompactPageSerializer;
+import study.datajpa.json.MemberDtoSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < 페이지 응답 JSON 직렬화: Page(PageImpl) vs CompactPage >
+ *
+ * max-page-size(100)만큼의 MemberDto를 응답 OutputStream에 쓰는 비용을 비교한다. (Database 조회는 제외)
+ * 1. pageImpl: /members 이전 방식 - PageImpl 전체를 기본 BeanSerializer로 직렬화
+ * 2. pageImplWithMemberSerializer: /members 현재 방식 - content만 MemberDtoSerializer 사용
+ * 3. compactPage: /members/compact - CompactPageSerializer + MemberDtoSerializer
+ *
+ * 응답 크기: payloadBytes / payloads (AuxCounters)
+ * 할당량: -prof gc 의 gc.alloc.rate.norm (B/op)
+ * -> ./gradlew jmh -Pjmh.include=PagePayloadBenchmark -Pjmh.args="-prof gc"
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagePayloadBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Page<MemberDto> page;
+    private ObjectWriter reflectiveWriter;
+    private ObjectWriter pageWriter;
+    private ObjectWriter compactWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<MemberDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new MemberDto((long) i, "member" + i, i % 3 == 0 ? null : "team" + (i % 10)));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "username")), 10_000);
+
+        ObjectMapper reflectiveMapper = new ObjectMapper();
+        ObjectMapper compactMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(new MemberDtoSerializer())
+                .addSerializer(new CompactPageSerializer()));
+
+        reflectiveWriter = reflectiveMapper.writerFor(Page.class);
+        pageWriter = compactMapper.writerFor(Page.class);
+        compactWriter = compactMapper.writerFor(CompactPage.class);
+    }
+
+    @Benchmark
+    public void pageImpl(Payload payload) throws IOException {
+        reflectiveWriter.writeValue(payload, page);
+        payload.payloads++;
+    }
+
+    @Benchmark
+    public void pageImplWithMemberSerializer(Payload payload) throws IOException {
+        pageWriter.writeValue(payload, page);
+        payload.payloads++;
+    }
+
+    @Benchmark
+    public void compactPage(Payload payload) throws IOException {
+        compactWriter.writeValue(payload, CompactPage.of(page));
+        payload.payloads++;
+    }
+
+    /*
+     * 응답 OutputStream 대신 쓴 바이트 수만 센다.
+     * 주의) ObjectWriter.writeValue()는 끝나면 OutputStream을 close() 하므로 close()는 아무 것도 하지 않는다.
+     * */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload extends OutputStream {
+
+        public long payloadBytes;
+        public long payloads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+            payloads = 0;
+        }
+
+        @Override
+        public void write(int b) {
+            payloadBytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            payloadBytes += len;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.count.CountMode;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < count 쿼리: 순서대로 실행 vs 동시에 실행 >
+ *
+ * /members 와 같은 조회(findAll(Pageable, CountMode))의 응답 시간 분포를 비교한다. (p0.50, p0.99)
+ * -> 두 번째 페이지를 조회하므로 항상 count 쿼리가 필요하다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingCountBenchmark {
+
+    @Param({"10000", "100000"})
+    public int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        pageRequest = PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "username"));
+
+        MemberRepositoryBenchmark.insertMembers(context, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Member> sequentialCount() {
+        return memberRepository.findAll(pageRequest, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public Page<Member> parallelCount() {
+        return memberRepository.findAll(pageRequest, CountMode.PARALLEL);
+    }
+}
@@ -0,0 +1,99 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * < 엔티티 조회 후 변환 vs 컬럼만 조회하는 프로젝션 >
+ *
+ * 1. entityThenDto: Member + Team을 fetch join으로 조회한 후 MemberDto로 변환한다. (영속성 컨텍스트 + 스냅샷)
+ * 2. projectedNested, projectedDto: 필요한 컬럼만 조회해서 바로 변환한다.
+ * 3. springDataNestedProjectionByUsername: Spring Data JPA의 동적 프로젝션 (중첩 프로젝션이라 엔티티를 조회한다.)
+ * 4. projectedNestedByUsername: 3번과 같은 조건을 컬럼만 조회한다.
+ *
+ * ./gradlew jmh -Pjmh.include=ProjectionBenchmark -Pjmh.args="-prof gc"
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        MemberRepositoryBenchmark.insertMembers(context, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> entityThenDto() {
+        return transaction.execute(status -> memberRepository.findMembersFetchJoin()
+                .stream()
+                .map(ProjectionBenchmark::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> springDataNestedProjectionByUsername() {
+        return transaction.execute(status -> {
+            List<NestedClosedProjections> projections = memberRepository.findProjectionsByUsername("member0", NestedClosedProjections.class);
+            projections.forEach(projection -> projection.getTeam().getName());
+            return projections;
+        });
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> projectedNestedByUsername() {
+        return transaction.execute(status -> {
+            List<NestedClosedProjections> projections = memberRepository.findProjectedByUsername("member0", NestedClosedProjections.class);
+            projections.forEach(projection -> projection.getTeam().getName());
+            return projections;
+        });
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> projectedNested() {
+        return transaction.execute(status -> {
+            List<NestedClosedProjections> projections = memberRepository.findAllProjected(NestedClosedProjections.class);
+            projections.forEach(projection -> projection.getTeam().getName());
+            return projections;
+        });
+    }
+
+    @Benchmark
+    public List<MemberDto> projectedDto() {
+        return transaction.execute(status -> memberRepository.findAllProjected(MemberDto.class));
+    }
+
+    private static MemberDto toDto(Member member) {
+        return new MemberDto(member.getId(), member.getUsername(),
+                member.getTeam() == null ? null : member.getTeam().getName());
+    }
+}
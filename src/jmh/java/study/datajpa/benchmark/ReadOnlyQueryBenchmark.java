@@ -0,0 +1,75 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < 읽기 전용 트랜잭션 vs 쓰기 트랜잭션 >
+ *
+ * dataSize 만큼 조회한 후 flush 하는 시간을 비교한다.
+ * -> 쓰기 트랜잭션은 조회한 엔티티마다 스냅샷을 만들고, flush 할 때 모든 필드를 비교한다.
+ * -> 읽기 전용 트랜잭션은 스냅샷을 만들지 않고, flush도 하지 않는다.
+ *
+ * 힙 사용량(스냅샷)의 차이는 -prof gc 옵션으로 확인한다. (gc.alloc.rate.norm)
+ * ./gradlew jmh -Pjmh.include=ReadOnlyQueryBenchmark -Pjmh.args="-prof gc"
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyQueryBenchmark {
+
+    @Param({"1000", "10000"})
+    public int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        MemberRepositoryBenchmark.insertMembers(context, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> readWriteFindAllAndFlush() {
+        return readWriteTransaction.execute(status -> findAllAndFlush());
+    }
+
+    @Benchmark
+    public List<Member> readOnlyFindAllAndFlush() {
+        return readOnlyTransaction.execute(status -> findAllAndFlush());
+    }
+
+    private List<Member> findAllAndFlush() {
+        List<Member> members = memberRepository.findMemberCustom();
+        entityManager.flush();
+        return members;
+    }
+}
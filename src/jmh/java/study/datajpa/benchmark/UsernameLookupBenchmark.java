@@ -0,0 +1,101 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < username 조회: 인덱스 사용 vs 전체 읽기 >
+ *
+ * 같은 결과를 인덱스를 사용하는 쿼리와 사용할 수 없는 쿼리로 조회해서 비교한다.
+ * 1. 대소문자 무시: normalized_username = ? (인덱스) vs lower(username) = ? (전체 읽기)
+ * 2. 앞부분 검색: username like 'prefix%' (인덱스) vs locate(prefix, username) = 1 (전체 읽기)
+ * 3. 정확히 일치: username = ? (인덱스) - 기준값
+ *
+ * dataSize가 커질수록 인덱스를 사용하는 쿼리는 거의 그대로이고, 전체 읽기는 dataSize에 비례해서 느려진다.
+ * 실행 계획은 H2 콘솔에서 explain select ... 로 확인할 수 있다. (MemberRepositoryTest.usernameQueriesUseIndexes)
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsernameLookupBenchmark {
+
+    @Param({"1000", "100000"})
+    public int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        MemberRepositoryBenchmark.insertMembers(context, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> exact() {
+        return memberRepository.findMembersByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public List<Member> ignoreCaseIndexed() {
+        return memberRepository.findByUsernameIgnoringCase(randomUsername().toUpperCase());
+    }
+
+    @Benchmark
+    public List<Member> ignoreCaseFunction() {
+        String username = randomUsername().toUpperCase();
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("select m from Member m where lower(m.username) = lower(:username)", Member.class)
+                .setParameter("username", username)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Member> prefixIndexed() {
+        return memberRepository.findByUsernameStartingWith(randomPrefix(), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public List<Member> prefixFunction() {
+        String prefix = randomPrefix();
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("select m from Member m where locate(:prefix, m.username) = 1", Member.class)
+                .setParameter("prefix", prefix)
+                .setMaxResults(10)
+                .getResultList());
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(dataSize);
+    }
+
+    // ex) member123 -> 최대 10건 (member123, member1230 ~ member1239 중 일부)
+    private String randomPrefix() {
+        return "member" + ThreadLocalRandom.current().nextInt(Math.max(1, dataSize / 10));
+    }
+}
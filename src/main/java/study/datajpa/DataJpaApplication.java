@@ -2,15 +2,11 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-import java.util.Optional;
-import java.util.UUID;
-
-@EnableJpaAuditing
+// auditorProvider, auditingDateTimeProvider는 study.datajpa.auditing.AuditingConfig에 있다.
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 //@EnableJpaRepositories(basePackages = "study.datajpa.repository") 원래 있어야 하는데, 없어도 된다.
 public class DataJpaApplication {
@@ -19,9 +15,4 @@ public class DataJpaApplication {
 		SpringApplication.run(DataJpaApplication.class, args);
 	}
 
-	@Bean
-	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
-	}
-
 }
@@ -0,0 +1,34 @@
+package study.datajpa.auditing;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.CurrentDateTimeProvider;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+ * < Auditing 설정 >
+ *
+ * datajpa.auditing.high-throughput: true 이면 등록자/수정자, 시간을 캐시해서 사용한다. (AuditingProperties)
+ * -> @EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+ * */
+@Configuration
+@EnableConfigurationProperties(AuditingProperties.class)
+public class AuditingConfig {
+
+    @Bean
+    public AuditorAware<String> auditorProvider(AuditingProperties properties) {
+        // 실제로는 Spring Security의 SecurityContext 등에서 사용자 id를 꺼낸다.
+        AuditorAware<String> auditorAware = () -> Optional.of(UUID.randomUUID().toString());
+        return properties.isHighThroughput() ? new RequestScopedAuditorAware<>(auditorAware) : auditorAware;
+    }
+
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider(AuditingProperties properties) {
+        return properties.isHighThroughput() ? new TransactionScopedDateTimeProvider() : CurrentDateTimeProvider.INSTANCE;
+    }
+}
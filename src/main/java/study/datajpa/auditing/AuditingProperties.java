@@ -0,0 +1,17 @@
+package study.datajpa.auditing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.auditing")
+public class AuditingProperties {
+
+    /*
+     * true: 등록자/수정자는 요청(또는 트랜잭션)마다 한 번만 구하고, 등록일/수정일은 트랜잭션 안에서 같은 시간을 사용한다.
+     * -> 대량 저장 시 엔티티마다 UUID, LocalDateTime을 만들지 않는다.
+     * */
+    private boolean highThroughput = false;
+}
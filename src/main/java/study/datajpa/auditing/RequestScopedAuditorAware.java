@@ -0,0 +1,41 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/*
+ * < 요청마다 한 번만 구하는 등록자/수정자 >
+ *
+ * 1. HTTP 요청 안: 요청 속성에 저장해두고 요청이 끝날 때까지 재사용한다.
+ * 2. 요청 밖(배치 등)의 트랜잭션 안: 트랜잭션이 끝날 때까지 재사용한다.
+ * 3. 둘 다 아니면 매번 delegate에서 구한다.
+ * */
+public class RequestScopedAuditorAware<T> implements AuditorAware<T> {
+
+    private static final String ATTRIBUTE_NAME = RequestScopedAuditorAware.class.getName() + ".auditor";
+
+    private final AuditorAware<T> delegate;
+
+    public RequestScopedAuditorAware(AuditorAware<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<T> getCurrentAuditor() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return TransactionScopedValues.get(this, delegate::getCurrentAuditor);
+        }
+
+        Optional<T> auditor = (Optional<T>) requestAttributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (auditor == null) {
+            auditor = delegate.getCurrentAuditor();
+            requestAttributes.setAttribute(ATTRIBUTE_NAME, auditor, RequestAttributes.SCOPE_REQUEST);
+        }
+        return auditor;
+    }
+}
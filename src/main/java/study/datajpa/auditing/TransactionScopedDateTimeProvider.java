@@ -0,0 +1,22 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/*
+ * < 트랜잭션마다 하나의 시간 >
+ *
+ * AuditingEntityListener는 엔티티를 저장/수정할 때마다 DateTimeProvider.getNow()를 호출한다.
+ * -> 트랜잭션에서 처음 호출할 때의 시간을 트랜잭션이 끝날 때까지 재사용한다.
+ *    (같은 트랜잭션에서 저장한 엔티티는 모두 같은 등록일/수정일을 가진다.)
+ * */
+public class TransactionScopedDateTimeProvider implements DateTimeProvider {
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return TransactionScopedValues.get(this, () -> Optional.of(LocalDateTime.now()));
+    }
+}
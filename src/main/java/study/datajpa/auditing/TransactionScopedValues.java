@@ -0,0 +1,35 @@
+package study.datajpa.auditing;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/*
+ * 트랜잭션이 끝날 때까지 같은 값을 반환한다. (트랜잭션이 없으면 매번 새로 구한다.)
+ * */
+final class TransactionScopedValues {
+
+    private TransactionScopedValues() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T get(Object key, Supplier<T> supplier) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return supplier.get();
+        }
+
+        T value = (T) TransactionSynchronizationManager.getResource(key);
+        if (value == null) {
+            value = supplier.get();
+            TransactionSynchronizationManager.bindResource(key, value);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+        }
+        return value;
+    }
+}
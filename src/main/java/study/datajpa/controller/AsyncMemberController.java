@@ -0,0 +1,49 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.repository.async.AsyncMemberRepository;
+import study.datajpa.repository.count.CountMode;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * < 비동기 요청 처리 >
+ *
+ * CompletableFuture를 반환하면 Spring MVC가 서블릿 스레드를 바로 반환하고(Servlet 3 async),
+ * 결과가 완료되면 응답을 쓴다.
+ * -> 느린 쿼리가 많아도 서블릿 스레드 수(server.tomcat.threads.max)에 막히지 않는다.
+ *    (동시에 실행되는 쿼리 수는 RepositoryExecutor가 커넥션 풀 크기로 제한한다.)
+ * */
+@RestController
+@RequiredArgsConstructor
+public class AsyncMemberController {
+
+    private final AsyncMemberRepository asyncMemberRepository;
+
+    @GetMapping("/async/members/{id}")
+    public CompletableFuture<MemberDto> findMember(@PathVariable("id") Long id) {
+        return asyncMemberRepository.findById(id)
+                .thenApply(member -> member.orElseThrow(() -> new NoSuchElementException("해당 회원은 존재하지 않습니다.")));
+    }
+
+    @GetMapping("/async/members")
+    public CompletableFuture<Page<MemberDto>> list(@PageableDefault(size = 5) Pageable pageable,
+                                                   @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode) {
+        return asyncMemberRepository.findAll(pageable, countMode);
+    }
+
+    @GetMapping("/async/members/search")
+    public CompletableFuture<Page<MemberDto>> search(MemberSearchCondition condition, @PageableDefault(size = 5) Pageable pageable) {
+        return asyncMemberRepository.search(condition, pageable);
+    }
+}
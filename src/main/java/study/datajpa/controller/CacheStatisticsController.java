@@ -0,0 +1,55 @@
+package study.datajpa.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * < 2차 캐시 hit/miss 통계 >
+ *
+ * hibernate.generate_statistics: true 일 때만 값이 집계된다.
+ * */
+@RestController
+public class CacheStatisticsController {
+
+    private final Statistics statistics;
+
+    public CacheStatisticsController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (regionStatistics == null) {
+                continue;
+            }
+            regions.put(regionName, hitMiss(regionStatistics.getHitCount(), regionStatistics.getMissCount(), regionStatistics.getPutCount()));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCache", hitMiss(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", hitMiss(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        result.put("regions", regions);
+        return result;
+    }
+
+    private Map<String, Long> hitMiss(long hitCount, long missCount, long putCount) {
+        Map<String, Long> hitMiss = new LinkedHashMap<>();
+        hitMiss.put("hit", hitCount);
+        hitMiss.put("miss", missCount);
+        hitMiss.put("put", putCount);
+        return hitMiss;
+    }
+}
@@ -1,19 +1,42 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.datasource.DataSourceRouting;
+import study.datajpa.dto.CompactPage;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
+import study.datajpa.httpcache.HttpCacheProperties;
+import study.datajpa.httpcache.TableVersionRegistry;
+import study.datajpa.httpcache.VersionedResponseCache;
+import study.datajpa.repository.KeysetWindow;
+import study.datajpa.repository.MemberCursor;
+import study.datajpa.repository.MemberQueryRepository;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.count.CountMode;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.*;
@@ -22,8 +45,22 @@ import static java.util.stream.Collectors.*;
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_WINDOW_SIZE = 100;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int EXPORT_DETACH_INTERVAL = 1000;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String[] MEMBER_TABLES = { "member", "team" };
+
     private final MemberRepository memberRepository;
+    private final MemberQueryRepository memberQueryRepository;
+    private final ObjectMapper objectMapper;
+    private final TableVersionRegistry tableVersionRegistry;
+    private final VersionedResponseCache<String, Page<MemberDto>> memberPageCache;
+    private final HttpCacheProperties httpCacheProperties;
 
+    /*
+     * ETag, Last-Modified는 MemberConditionalRequestInterceptor가 추가한다. (변경이 없으면 여기까지 오지 않고 304)
+     * */
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
         Member member = memberRepository.findById(id)
@@ -45,16 +82,121 @@ public class MemberController {
         return member.getUsername();
     }
 
+    /*
+     * count 쿼리 전략은 countMode 파라미터로 고를 수 있다. (EXACT, CACHED, ESTIMATED, PARALLEL)
+     * -> /members?page=0&size=5&countMode=CACHED
+     * -> 기본값은 EXACT: 요청 하나가 커넥션 하나만 사용한다.
+     * -> PARALLEL은 응답 시간은 짧지만 요청 하나가 커넥션을 두 개 사용하므로, 커넥션 풀에 여유가 있을 때만 지정하자.
+     *
+     * < ETag, 응답 캐시 >
+     * member, team 테이블의 변경 버전으로 ETag를 만든다.
+     * -> If-None-Match가 같으면 쿼리 없이 304로 응답하고, 다르면 같은 버전으로 캐시된 페이지가 있는지 먼저 확인한다.
+     * */
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        return memberRepository.findAll(pageable)
+    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable,
+                                @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode,
+                                WebRequest webRequest) {
+        return findPage(pageable, countMode, webRequest);
+    }
+
+    /*
+     * < 페이지 응답 (compact) >
+     * -> /members/compact?page=0&size=100
+     * -> /members와 같은 페이지를 pageable, sort 같은 메타데이터 없이 응답한다. (CompactPage, CompactPageSerializer)
+     * */
+    @GetMapping("/members/compact")
+    public CompactPage<MemberDto> compactList(@PageableDefault(size = 5) Pageable pageable,
+                                              @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode,
+                                              WebRequest webRequest) {
+        Page<MemberDto> page = findPage(pageable, countMode, webRequest);
+        return page == null ? null : CompactPage.of(page);
+    }
+
+    /*
+     * 변경이 없으면(If-None-Match) null을 반환한다. (304)
+     * */
+    private Page<MemberDto> findPage(Pageable pageable, CountMode countMode, WebRequest webRequest) {
+        String version = tableVersionRegistry.versionTag(MEMBER_TABLES);
+        if (webRequest.checkNotModified("\"members-" + version + "\"")) {
+            return null;
+        }
+
+        /*
+         * 방금 변경이 커밋되었으면 복제본에는 아직 반영되지 않았을 수 있다.
+         * -> 복제본에서 조회하면 변경 전 데이터가 새 버전으로 캐시되므로, 이 때는 Primary에서 조회한다.
+         * */
+        Supplier<Page<MemberDto>> loader = () -> memberRepository.findAll(pageable, countMode).map(MemberDto::new);
+        boolean recentlyChanged = tableVersionRegistry.changedWithin(httpCacheProperties.getPrimaryReadWindow(), MEMBER_TABLES);
+
+        String cacheKey = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort() + ":" + countMode;
+        return memberPageCache.get(cacheKey, version,
+                recentlyChanged ? () -> DataSourceRouting.usePrimary(loader) : loader);
+    }
+
+    /*
+     * < 동적 검색 >
+     * -> /members/search?username=member1&ageGoe=10&ageLoe=20&teamName=teamA&fetchTeam=true
+     * -> 팀 이름은 fetchTeam=true 일 때만 응답에 포함된다. (false면 팀을 조회하지 않는다.)
+     * */
+    @GetMapping("/members/search")
+    public Page<MemberDto> search(MemberSearchCondition condition, @PageableDefault(size = 5) Pageable pageable) {
+        return memberQueryRepository.search(condition, pageable)
+                .map(member -> new MemberDto(member.getId(), member.getUsername(),
+                        condition.isFetchTeam() && member.getTeam() != null ? member.getTeam().getName() : null));
+    }
+
+    /*
+     * < Keyset(Seek) 페이징 >
+     * -> /members/cursor?size=5 로 첫 페이지를 조회하고, 응답의 nextCursor를 cursor 파라미터로 넘기면 다음 페이지를 조회한다.
+     * -> offset이 없기 때문에 10,000번째 페이지도 첫 페이지와 같은 비용으로 조회된다.
+     * -> 잘못된 커서는 클라이언트의 오류이므로 400으로 응답한다.
+     * */
+    @GetMapping("/members/cursor")
+    public KeysetWindow<MemberDto> listByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "size", defaultValue = "5") int size) {
+        if (cursor != null) {
+            try {
+                MemberCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+            }
+        }
+
+        int windowSize = Math.max(1, Math.min(size, MAX_WINDOW_SIZE));
+        return memberRepository.findWindowByUsername(cursor, windowSize)
                 .map(MemberDto::new);
     }
 
+    /*
+     * < 전체 회원 내보내기 (NDJSON) >
+     *
+     * 한 줄에 회원 한 명씩 JSON으로 응답에 바로 쓴다.
+     * -> 전체 결과를 List로 만들지 않고 scrollAll()로 읽으면서 쓰기 때문에, 회원 수와 상관없이 일정한 메모리만 사용한다.
+     * */
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        ObjectWriter writer = objectMapper.writerFor(MemberDto.class);
+
+        StreamingResponseBody body = outputStream -> memberRepository.scrollAll(EXPORT_FETCH_SIZE, EXPORT_DETACH_INTERVAL, member -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(new MemberDto(member)));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
 //    @PostConstruct
     public void init() {
+        List<Member> members = new ArrayList<>();
         for (int i = 0 ; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllBatched(members, 100);
     }
 }
@@ -0,0 +1,24 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.service.OptimisticLockStatistics;
+
+import java.util.Map;
+
+/*
+ * < 낙관적 락 충돌 통계 >
+ * 작업별 실행 수, 충돌 수, 재시도 후 성공 수, 재시도를 모두 실패한 수
+ * */
+@RestController
+@RequiredArgsConstructor
+public class OptimisticLockStatisticsController {
+
+    private final OptimisticLockStatistics optimisticLockStatistics;
+
+    @GetMapping("/locks/stats")
+    public Map<String, Object> lockStats() {
+        return optimisticLockStatistics.snapshot();
+    }
+}
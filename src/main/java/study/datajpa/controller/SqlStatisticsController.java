@@ -0,0 +1,28 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.monitoring.sql.SqlTraceRecorder;
+
+import java.util.Collections;
+import java.util.Map;
+
+/*
+ * < Repository 메소드별 SQL 통계 >
+ * 실행 횟수, 에러 수, row 수, 평균 응답 시간, 응답 시간 히스토그램
+ * -> datajpa.sql-tracing.enabled: false 이면 빈 값을 반환한다.
+ * */
+@RestController
+@RequiredArgsConstructor
+public class SqlStatisticsController {
+
+    private final ObjectProvider<SqlTraceRecorder> sqlTraceRecorder;
+
+    @GetMapping("/sql/stats")
+    public Map<String, Object> sqlStats() {
+        SqlTraceRecorder recorder = sqlTraceRecorder.getIfAvailable();
+        return recorder == null ? Collections.emptyMap() : recorder.snapshot();
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.datasource;
+
+import java.util.function.Supplier;
+
+/*
+ * < 복제본 대신 Primary를 사용해야 하는 경우 (read-your-writes) >
+ *
+ * DataSourceRouting.usePrimary(() -> ...): 읽기 전용 트랜잭션이어도 Primary에서 조회한다.
+ * -> 복제 지연 때문에 방금 저장한 데이터가 복제본에 아직 없을 수 있다.
+ *    방금 저장한 데이터를 다시 조회해야 하는 곳에서 직접 감싸야 한다. (자동으로 Primary를 사용하는 기간은 없다.)
+ * -> 스레드(서블릿 worker)를 기준으로 기간을 두면, 같은 클라이언트의 다음 요청은 다른 스레드에서 실행되어 보장되지 않고,
+ *    그 스레드를 이어서 사용하는 다른 클라이언트의 요청은 불필요하게 Primary를 사용한다.
+ *
+ * 주의) 트랜잭션이 시작되기 전에 지정해야 한다. (커넥션은 트랜잭션의 첫 SQL에서 결정된다.)
+ * */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Integer> PRIMARY_FORCED = ThreadLocal.withInitial(() -> 0);
+
+    private DataSourceRouting() {
+    }
+
+    public static <T> T usePrimary(Supplier<T> work) {
+        PRIMARY_FORCED.set(PRIMARY_FORCED.get() + 1);
+        try {
+            return work.get();
+        } finally {
+            int depth = PRIMARY_FORCED.get() - 1;
+            if (depth == 0) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(depth);
+            }
+        }
+    }
+
+    static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() > 0;
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * < Primary / 복제본 라우팅 >
+ *
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true), @ReadOnlyRepository의 조회 메소드)은 복제본에서,
+ * 그 외(쓰기 트랜잭션, 트랜잭션 밖의 SQL)는 Primary에서 실행한다.
+ *
+ * 다음의 경우에는 읽기 전용이어도 Primary를 사용한다.
+ * 1. DataSourceRouting.usePrimary() 안에서 실행하는 경우
+ * 2. 모든 복제본의 복제 지연 시간이 maxReplicaLag보다 크거나, 확인할 수 없는 경우
+ *
+ * 주의) 트랜잭션이 시작될 때 바로 커넥션을 얻으면 아직 읽기 전용인지 알 수 없으므로,
+ *      반드시 LazyConnectionDataSourceProxy로 감싸서 첫 SQL을 실행할 때 커넥션을 얻도록 해야 한다.
+ * */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final Duration maxReplicaLag;
+    private final Duration lagCheckInterval;
+    private final ReplicaLagProbe lagProbe;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaSelection selection,
+                                      Duration maxReplicaLag, Duration lagCheckInterval, ReplicaLagProbe lagProbe) {
+        this.replicas = new ArrayList<>(replicas);
+        this.selection = selection;
+        this.maxReplicaLag = maxReplicaLag;
+        this.lagCheckInterval = lagCheckInterval;
+        this.lagProbe = lagProbe;
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targetDataSources.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+
+        if (DataSourceRouting.isPrimaryForced()) {
+            return PRIMARY;
+        }
+
+        Replica replica = selectReplica();
+        return replica == null ? PRIMARY : replica.getName();
+    }
+
+    private Replica selectReplica() {
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isWithinLag(maxReplicaLag, lagProbe, lagCheckInterval)) {
+                candidates.add(replica);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        if (selection == ReplicaSelection.LEAST_CONNECTIONS) {
+            return candidates.stream()
+                    .min(Comparator.comparingInt(Replica::activeConnections))
+                    .get();
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * 복제본 하나와 마지막으로 확인한 복제 지연 시간
+ * -> 지연 시간은 lagCheckInterval 마다 한 스레드만 다시 확인하고, 나머지는 마지막 값을 사용한다.
+ * */
+@Slf4j
+@Getter
+public class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile Duration lag = Duration.ZERO;
+    private volatile long checkedAt;
+
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    boolean isWithinLag(Duration maxLag, ReplicaLagProbe probe, Duration checkInterval) {
+        long now = System.nanoTime();
+        if ((checkedAt == 0 || now - checkedAt >= checkInterval.toNanos()) && checking.compareAndSet(false, true)) {
+            try {
+                lag = probe.lag(dataSource);
+            } catch (Exception e) {
+                // 확인할 수 없는 복제본은 사용하지 않는다.
+                log.warn("복제본의 복제 지연 시간을 확인하지 못했습니다. replica: {}", name, e);
+                lag = null;
+            } finally {
+                checkedAt = now;
+                checking.set(false);
+            }
+        }
+
+        Duration currentLag = lag;
+        return currentLag != null && currentLag.compareTo(maxLag) <= 0;
+    }
+
+    int activeConnections() {
+        if (dataSource instanceof HikariDataSource) {
+            HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.datasource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/*
+ * < 복제본의 복제 지연 시간 조회 >
+ * -> Database마다 방법이 다르므로 SQL(초 단위 지연 시간을 반환)로 지정한다.
+ *    ex) MySQL heartbeat 테이블: select timestampdiff(second, ts, now()) from heartbeat
+ * */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    // 복제 지연이 없다고 가정한다. (lag-query를 지정하지 않은 경우)
+    ReplicaLagProbe NONE = replica -> Duration.ZERO;
+
+    Duration lag(DataSource replica) throws SQLException;
+
+    static ReplicaLagProbe sql(String lagQuery) {
+        return replica -> {
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    throw new SQLException("복제 지연 시간을 조회하지 못했습니다. query: " + lagQuery);
+                }
+                return Duration.ofMillis((long) (resultSet.getDouble(1) * 1000));
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package study.datajpa.datasource;
+
+public enum ReplicaSelection {
+    // 복제본을 순서대로 돌아가며 사용한다.
+    ROUND_ROBIN,
+    // 사용 중인 커넥션이 가장 적은 복제본을 사용한다. (HikariCP 풀만 지원, 그 외에는 ROUND_ROBIN과 같다.)
+    LEAST_CONNECTIONS
+}
@@ -0,0 +1,98 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * < 읽기/쓰기 DataSource 분리 >
+ * datajpa.routing.enabled: true 일 때만 등록되고, 그렇지 않으면 spring.datasource 하나만 사용한다.
+ *
+ * Primary와 복제본 풀은 모두 spring.datasource.hikari 설정을 그대로 사용한다. (pool-name 뒤에 -replica-N)
+ * -> DataSource Bean은 하나만 등록한다. Bean으로 등록된 DataSource는 TracingDataSource로 감싸지므로,
+ *    복제본까지 Bean으로 등록하면 SQL이 두 번 기록된다.
+ * -> 대신 각 풀의 hikaricp.* 메트릭은 직접 등록한다.
+ * -> 등록되는 Bean은 LazyConnectionDataSourceProxy라서 Spring이 풀을 닫지 않으므로, 종료할 때 직접 닫는다.
+ * */
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "datajpa.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig implements DisposableBean {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 RoutingDataSourceProperties properties,
+                                 Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        String poolName = StringUtils.hasText(primary.getPoolName()) ? primary.getPoolName() : "datajpa-pool";
+        primary.setPoolName(poolName);
+        registerMetrics(primary, meterRegistry);
+        pools.add(primary);
+
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            RoutingDataSourceProperties.ReplicaProperties replicaProperties = properties.getReplicas().get(i);
+
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setJdbcUrl(replicaProperties.getUrl());
+            replica.setUsername(replicaProperties.getUsername());
+            replica.setPassword(replicaProperties.getPassword());
+            replica.setPoolName(poolName + "-replica-" + i);
+            replica.setReadOnly(true);
+            registerMetrics(replica, meterRegistry);
+            pools.add(replica);
+
+            replicas.add(new Replica(replica.getPoolName(), replica));
+        }
+
+        ReplicaLagProbe lagProbe = StringUtils.hasText(properties.getLagQuery())
+                ? ReplicaLagProbe.sql(properties.getLagQuery())
+                : ReplicaLagProbe.NONE;
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replicas,
+                properties.getSelection(), properties.getMaxReplicaLag(), properties.getLagCheckInterval(),
+                lagProbe);
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Override
+    public void destroy() {
+        for (HikariDataSource pool : pools) {
+            pool.close();
+        }
+    }
+
+    private void registerMetrics(HikariDataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.routing")
+public class RoutingDataSourceProperties {
+
+    // true 이면 읽기 전용 트랜잭션을 복제본(replicas)에서 실행한다.
+    private boolean enabled = false;
+
+    private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+    // 복제 지연 시간이 이보다 큰 복제본은 사용하지 않는다.
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    // 복제 지연 시간을 다시 확인하는 주기
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    // 복제 지연 시간(초)을 조회하는 SQL (지정하지 않으면 지연이 없다고 가정한다.)
+    private String lagQuery;
+
+    private List<ReplicaProperties> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class ReplicaProperties {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/*
+ * < 페이지 응답 (compact) >
+ *
+ * Page(PageImpl)를 그대로 응답하면 pageable, sort, first, last, empty, numberOfElements 처럼
+ * 요청 파라미터로 이미 알고 있거나 계산할 수 있는 값까지 모두 JSON으로 나간다.
+ * -> 클라이언트에게 필요한 값(content, page, size, totalElements, totalPages)만 응답한다.
+ * -> JSON은 CompactPageSerializer가 만든다.
+ * */
+@Getter
+@AllArgsConstructor
+public class CompactPage<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public static <T> CompactPage<T> of(Page<T> page) {
+        return new CompactPage<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import study.datajpa.entity.Item;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class ItemDto {
+    private String id;
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
+
+    public ItemDto(Item item) {
+        this.id = item.getId();
+        this.createdDate = item.getCreatedDate();
+        this.lastModifiedDate = item.getLastModifiedDate();
+    }
+}
@@ -2,19 +2,21 @@ package study.datajpa.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 import study.datajpa.entity.Member;
 
-@Setter
+/*
+ * 불변 객체
+ * -> /members 페이지 캐시(memberPageCache)는 같은 인스턴스를 여러 요청에 그대로 응답한다.
+ *    한 요청에서 값을 바꾸면 캐시된 다른 요청의 응답까지 바뀌므로 setter를 두지 않는다.
+ * */
 @Getter
 @AllArgsConstructor
 public class MemberDto {
-    private Long memberId;
-    private String username;
-    private String teamName;
+    private final Long memberId;
+    private final String username;
+    private final String teamName;
 
     public MemberDto(Member member) {
-        this.memberId = member.getId();
-        this.username = member.getUsername();
+        this(member.getId(), member.getUsername(), null);
     }
 }
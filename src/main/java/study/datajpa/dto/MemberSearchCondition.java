@@ -0,0 +1,22 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * < 회원 검색 조건 >
+ *
+ * null인 조건은 where 절에 추가하지 않는다.
+ * fetchTeam = true 이면 팀을 fetch join 해서 함께 조회한다. (팀 이름이 필요할 때만 켜자)
+ * */
+@Setter
+@Getter
+@NoArgsConstructor
+public class MemberSearchCondition {
+    private String username;
+    private Integer ageGoe;
+    private Integer ageLoe;
+    private String teamName;
+    private boolean fetchTeam;
+}
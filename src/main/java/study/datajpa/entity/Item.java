@@ -32,10 +32,28 @@ public class Item extends BaseTimeEntity implements Persistable<String> {
     @Id
     private String id;
 
+    /*
+     * < isNew() 판단을 createdDate에 의존하지 않는 이유 >
+     *
+     * Auditing이 적용되지 않는 경로(ex. Auditing 비활성화, 직접 생성한 엔티티)에서는 createdDate가 null이 아니거나
+     * 반대로 이미 저장된 엔티티의 createdDate가 null일 수 있다. 그러면 save()가 merge()로 동작해서 SELECT 쿼리가 한 번 더 나간다.
+     * -> new로 생성한 엔티티는 항상 새로운 엔티티이고, persist(@PrePersist)되거나 조회(@PostLoad)되면 기존 엔티티가 된다.
+     * -> @PostPersist는 직접 할당한 id의 경우 flush 시점에 호출되므로, persist 시점에 호출되는 @PrePersist를 사용한다.
+     * */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
     public Item(String id) {
         this.id = id;
     }
 
+    @PrePersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
     @Override
     public String getId() {
         return id;
@@ -43,6 +61,6 @@ public class Item extends BaseTimeEntity implements Persistable<String> {
 
     @Override
     public boolean isNew() {
-        return super.getCreatedDate() == null;
+        return newEntity;
     }
 }
@@ -4,10 +4,16 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
+import java.util.List;
+import java.util.Locale;
 
 import static javax.persistence.FetchType.*;
-import static javax.persistence.GenerationType.AUTO;
+import static javax.persistence.GenerationType.SEQUENCE;
 import static lombok.AccessLevel.*;
 
 /*
@@ -19,49 +25,109 @@ import static lombok.AccessLevel.*;
  * 싱단에 @NoArgsConstructor(access = AccessLevel.PROTECTED) 로 대체할 수 있음
  * */
 
+/*
+ * < 인덱스 >
+ * 1. (username, member_id): username 조회(=, in, like 'prefix%')와 Keyset 페이징(order by username, member_id)
+ *    -> username 단독 인덱스는 이 인덱스의 앞부분과 같으므로 따로 만들지 않는다. (INSERT/UPDATE 비용만 늘어난다.)
+ * 2. (age, username): findPageByAge, findByPage (where age = ? order by username)
+ * 3. team_id: 팀의 회원 조회(Team.members 지연 로딩, team_id in (...) batch fetch)
+ * 4. normalized_username: 대소문자 무시 조회 (아래 normalizedUsername 참고)
+ * */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username_id", columnList = "username, member_id"),
+        @Index(name = "idx_member_age_username", columnList = "age, username"),
+        @Index(name = "idx_member_team_id", columnList = "team_id"),
+        @Index(name = "idx_member_normalized_username", columnList = "normalized_username")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @NoArgsConstructor(access = PROTECTED)
 @ToString(of = { "id", "username", "age" }) // team을 적으면, 큰일 남. 연관 관계까지 다 출력하기 때문
 public class Member extends BaseTimeEntity {
 
+    /*
+     * < GenerationType.AUTO -> SEQUENCE (pooled) >
+     *
+     * AUTO는 persist 할 때마다 시퀀스를 한 번씩 호출한다.
+     * allocationSize = 50으로 지정하면, 시퀀스를 한 번 호출할 때 50개의 id를 미리 확보해서 메모리에서 할당한다. (pooled optimizer)
+     * -> IDENTITY 전략과 다르게 INSERT 전에 id를 알 수 있으므로, hibernate.jdbc.batch_size와 함께 INSERT를 묶어서 보낼 수 있다.
+     * 주의) 여러 서버가 같은 시퀀스를 사용해도 id가 겹치지는 않지만, id 사이에 빈 값이 생길 수 있다.
+     * */
     @Id
-    @GeneratedValue(strategy = AUTO)
+    @GeneratedValue(strategy = SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
 
     private String username;
 
+    /*
+     * < 대소문자를 무시한 username 조회 >
+     * where lower(username) = ? 는 username 인덱스를 사용할 수 없다. (컬럼에 함수를 적용하면 전체를 읽는다.)
+     * H2 1.4는 함수 기반 인덱스(create index ... (lower(username)))를 지원하지 않으므로,
+     * 소문자로 바꾼 값을 컬럼에 같이 저장하고 이 컬럼에 인덱스를 만든다.
+     * -> username을 변경하는 곳(생성자, changeUsername)에서 항상 같이 변경된다.
+     * */
+    @Column(name = "normalized_username")
+    private String normalizedUsername;
+
     private int age;
 
+    /*
+     * < 낙관적 락 >
+     * UPDATE 할 때 where version = ? 조건을 추가하고 version을 1 증가시킨다.
+     * -> 다른 트랜잭션이 먼저 수정했으면 수정된 row가 0이므로 OptimisticLockException이 발생한다. (먼저 커밋한 쪽이 이긴다.)
+     * -> 충돌 시 재시도는 OptimisticLockRetryExecutor를 사용한다.
+     * */
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
 
     public Member(String username) {
         this.username = username;
+        this.normalizedUsername = normalizeUsername(username);
     }
 
     public Member(String username, int age) {
         this.username = username;
+        this.normalizedUsername = normalizeUsername(username);
         this.age = age;
     }
 
     public Member(String username, int age, Team team) {
         this.username = username;
+        this.normalizedUsername = normalizeUsername(username);
         this.age = age;
         if (team != null) {
             this.changeTeam(team);
         }
     }
 
-    /* 연관 관계 편의 메소드 */
+    /*
+     * 연관 관계 편의 메소드
+     * -> 바이트코드 향상(enableAssociationManagement)이 적용되면 this.team = team 에서 이미 team.members에 추가되므로,
+     *    중복으로 추가하지 않도록 확인한다. (향상되지 않은 환경에서도 동작해야 한다.)
+     * -> 초기화되지 않은 컬렉션은 contains()가 컬렉션 전체를 조회하므로 확인하지 않는다. (추가만 하면 조회하지 않는다.)
+     * */
     public void changeTeam(Team team) {
         this.team = team;
-        team.getMembers().add(this);
+        List<Member> members = team.getMembers();
+        if (!Hibernate.isInitialized(members) || !members.contains(this)) {
+            members.add(this);
+        }
     }
 
     public void changeUsername(String username) {
         this.username = username;
+        this.normalizedUsername = normalizeUsername(username);
+    }
+
+    public static String normalizeUsername(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
     }
 }
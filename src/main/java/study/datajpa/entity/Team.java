@@ -2,30 +2,53 @@ package study.datajpa.entity;
 
 import lombok.*;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
+
 import javax.persistence.*;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import static javax.persistence.CascadeType.*;
-import static javax.persistence.GenerationType.AUTO;
+import static javax.persistence.GenerationType.SEQUENCE;
 import static lombok.AccessLevel.*;
 
 @Entity
+@BatchSize(size = 100)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @NoArgsConstructor(access = PROTECTED)
 @ToString(of = { "id", "name" })
 public class Team extends BaseTimeEntity {
 
     @Id
-    @GeneratedValue(strategy = AUTO)
+    @GeneratedValue(strategy = SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
+    @Version
+    private Long version;
+
+    /*
+     * < 배치 조회 >
+     * 팀 N개의 members를 처음 사용할 때 한 팀씩 조회(N+1)하지 않고, 영속성 컨텍스트에 있는 팀들의 members를 IN 절로 한 번에 조회한다.
+     * -> 클래스의 @BatchSize는 Member.team 처럼 Team 프록시를 초기화할 때 적용된다.
+     * -> 쿼리마다 크기를 다르게 하려면 TeamRepository.findPageWithMembers(pageable, batchSize)를 사용하자.
+     * 연관관계의 주인은 Member.team 이므로, members의 변경은 Team의 version을 올리지 않는다.
+     * */
     @OneToMany(mappedBy = "team", cascade = ALL)
-    private final List<Member> members = new ArrayList<>();
+    @BatchSize(size = 100)
+    @OptimisticLock(excluded = true) // 회원이 팀에 들어오고 나갈 때마다 Team의 version을 올리면, 같은 팀의 회원 저장끼리 충돌한다.
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    // 바이트코드 향상(지연 로딩, 연관관계 관리)이 필드를 다시 쓸 수 있도록 final로 선언하지 않는다.
+    private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
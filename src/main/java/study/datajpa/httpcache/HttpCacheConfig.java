@@ -0,0 +1,49 @@
+package study.datajpa.httpcache;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.monitoring.StatementInspectors;
+import study.datajpa.repository.MemberRepository;
+
+@Configuration
+@EnableConfigurationProperties(HttpCacheProperties.class)
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+    private final MemberRepository memberRepository;
+
+    /*
+     * WebMvcConfigurer는 EntityManagerFactory보다 먼저 생성될 수 있으므로, Repository는 처음 사용할 때 조회한다.
+     * */
+    public HttpCacheConfig(@Lazy MemberRepository memberRepository) {
+        this.memberRepository = memberRepository;
+    }
+
+    @Bean
+    public TableVersionRegistry tableVersionRegistry(HttpCacheProperties properties) {
+        return new TableVersionRegistry(properties.getMaxAge());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tableChangeInspectorCustomizer(TableVersionRegistry tableVersionRegistry) {
+        return hibernateProperties -> StatementInspectors.register(hibernateProperties,
+                new TableChangeInspector(tableVersionRegistry));
+    }
+
+    @Bean
+    public VersionedResponseCache<String, Page<MemberDto>> memberPageCache(HttpCacheProperties properties) {
+        return new VersionedResponseCache<>(properties.getPageCacheSize());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new MemberConditionalRequestInterceptor(memberRepository))
+                .addPathPatterns("/members/*", "/members2/*");
+    }
+}
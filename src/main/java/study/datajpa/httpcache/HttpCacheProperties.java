@@ -0,0 +1,22 @@
+package study.datajpa.httpcache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.http-cache")
+public class HttpCacheProperties {
+
+    // /members 응답을 캐시할 페이지 수 (0 이면 캐시하지 않고 ETag만 사용한다.)
+    private int pageCacheSize = 256;
+
+    // ETag와 캐시된 페이지를 최대로 사용할 시간 (다른 서버나 JdbcTemplate으로 변경된 데이터는 이 시간이 지나야 반영된다. 0 이면 제한 없음)
+    private Duration maxAge = Duration.ofSeconds(30);
+
+    // 테이블이 변경된 후 이 시간 동안은 /members를 Primary에서 조회한다. (datajpa.routing.max-replica-lag 보다 커야 한다.)
+    private Duration primaryReadWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,69 @@
+package study.datajpa.httpcache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberVersion;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * < 회원 단 건 조회(/members/{id}, /members2/{id})의 조건부 요청 >
+ *
+ * 컨트롤러가 실행되기 전에 version, lastModifiedDate만 조회해서 ETag, Last-Modified를 만든다.
+ * -> 클라이언트가 보낸 If-None-Match(또는 If-Modified-Since)와 같으면 304로 바로 응답하고, 컨트롤러는 실행되지 않는다.
+ * -> /members2/{id}는 도메인 클래스 컨버터가 컨트롤러 호출 전에 엔티티를 조회하므로, 인터셉터에서 확인해야 조회를 생략할 수 있다.
+ *
+ * ETag는 @Version 값을 사용한다. (벌크 연산도 version을 올리므로 lastModifiedDate보다 정확하다.)
+ * */
+@RequiredArgsConstructor
+public class MemberConditionalRequestInterceptor implements HandlerInterceptor {
+
+    private final MemberRepository memberRepository;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+
+        Long id = memberId(request);
+        if (id == null) {
+            return true;
+        }
+
+        // 존재하지 않는 회원은 컨트롤러가 처리한다.
+        Optional<MemberVersion> memberVersion = memberRepository.findVersionById(id);
+        if (!memberVersion.isPresent()) {
+            return true;
+        }
+
+        String etag = "\"member-" + id + "-" + memberVersion.get().getVersion() + "\"";
+        long lastModified = memberVersion.get().getLastModifiedDate() == null ? -1
+                : memberVersion.get().getLastModifiedDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // 변경이 없으면 304 응답을 쓰고, 있으면 ETag, Last-Modified 헤더만 추가한다.
+        return !new ServletWebRequest(request, response).checkNotModified(etag, lastModified);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long memberId(HttpServletRequest request) {
+        Map<String, String> uriVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (uriVariables == null || !uriVariables.containsKey("id")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(uriVariables.get("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.httpcache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * < 테이블 변경 감지 >
+ *
+ * Hibernate가 실행하는 INSERT/UPDATE/DELETE SQL에서 테이블 이름을 찾아서, 트랜잭션이 커밋된 후 버전을 올린다.
+ * -> 엔티티 변경뿐만 아니라 벌크 연산(@Modifying), Hibernate로 실행한 Native Query도 감지된다.
+ * -> 커밋 전에 버전을 올리면, 커밋 전의 데이터를 새 버전으로 캐시할 수 있으므로 커밋 후에 올린다. (롤백되면 올리지 않는다.)
+ *
+ * 주의) Hibernate를 거치지 않는 SQL(JdbcTemplate)은 감지되지 않는다.
+ * */
+@RequiredArgsConstructor
+public class TableChangeInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern WRITE_STATEMENT = Pattern.compile(
+            "^\\s*(?:/\\*.*?\\*/\\s*)*(?:insert\\s+into|update|delete\\s+from|delete|merge\\s+into)\\s+([\\w.\"`]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Object CHANGED_TABLES_KEY = new Object();
+
+    private final TableVersionRegistry tableVersionRegistry;
+
+    @Override
+    public String inspect(String sql) {
+        String table = writtenTable(sql);
+        if (table == null) {
+            return sql;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changedTables().add(table);
+        } else {
+            tableVersionRegistry.increment(Collections.singleton(table));
+        }
+        return sql;
+    }
+
+    static String writtenTable(String sql) {
+        Matcher matcher = WRITE_STATEMENT.matcher(sql);
+        if (!matcher.find()) {
+            return null;
+        }
+        String table = matcher.group(1).replaceAll("[\"`]", "");
+        return table.substring(table.lastIndexOf('.') + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> changedTables() {
+        Set<String> changedTables = (Set<String>) TransactionSynchronizationManager.getResource(CHANGED_TABLES_KEY);
+        if (changedTables != null) {
+            return changedTables;
+        }
+
+        Set<String> newChangedTables = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(CHANGED_TABLES_KEY, newChangedTables);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tableVersionRegistry.increment(newChangedTables);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_TABLES_KEY);
+            }
+        });
+        return newChangedTables;
+    }
+}
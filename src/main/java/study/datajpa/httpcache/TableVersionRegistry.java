@@ -0,0 +1,83 @@
+package study.datajpa.httpcache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * < 테이블별 변경 버전 >
+ *
+ * 테이블에 INSERT/UPDATE/DELETE가 커밋될 때마다 1씩 증가한다. (TableChangeInspector)
+ * -> 목록 조회(/members)의 ETag와 응답 캐시(VersionedResponseCache)는 이 버전이 같으면 결과도 같다고 판단한다.
+ *
+ * 주의) 버전은 서버 메모리에만 있으므로 서버마다, 재시작할 때마다 다르다.
+ *      그래서 versionTag()에는 서버 인스턴스마다 다른 epoch를 붙여서, 다른 서버의 같은 버전 번호와 구분한다.
+ *
+ * 주의) 다른 서버에서 커밋된 변경, Hibernate를 거치지 않는 SQL(JdbcTemplate, 직접 실행한 SQL)은 버전을 올리지 못한다.
+ *      그래서 versionTag()에는 maxAge 단위의 시간 구간도 붙인다.
+ *      -> 감지하지 못한 변경도 최대 maxAge가 지나면 ETag와 캐시 키가 바뀌어서 다시 조회된다.
+ * */
+public class TableVersionRegistry {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE), 36);
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> lastChanges = new ConcurrentHashMap<>();
+    private final Duration maxAge;
+
+    public TableVersionRegistry(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public long version(String table) {
+        AtomicLong version = versions.get(normalize(table));
+        return version == null ? 0 : version.get();
+    }
+
+    /*
+     * 여러 테이블의 버전을 하나의 문자열로 만든다. ex) kf3x1a2b-3.7 (maxAge가 있으면 kf3x1a2b-3.7-1b2c3)
+     * */
+    public String versionTag(String... tables) {
+        StringJoiner tag = new StringJoiner(".", epoch + "-", maxAge.isZero() ? "" : "-" + timeBucket());
+        for (String table : tables) {
+            tag.add(Long.toString(version(table)));
+        }
+        return tag.toString();
+    }
+
+    /*
+     * 테이블 중 하나라도 window 안에 변경이 커밋되었는지 확인한다.
+     * -> 복제본에는 아직 변경이 반영되지 않았을 수 있으므로, 이 때는 Primary에서 조회해야 한다.
+     * */
+    public boolean changedWithin(Duration window, String... tables) {
+        long now = System.nanoTime();
+        for (String table : tables) {
+            Long lastChange = lastChanges.get(normalize(table));
+            if (lastChange != null && now - lastChange < window.toNanos()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void increment(Collection<String> tables) {
+        long now = System.nanoTime();
+        for (String table : tables) {
+            String key = normalize(table);
+            versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+            lastChanges.put(key, now);
+        }
+    }
+
+    private String timeBucket() {
+        return Long.toString(System.currentTimeMillis() / maxAge.toMillis(), 36);
+    }
+
+    private String normalize(String table) {
+        return table.toLowerCase();
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.httpcache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+ * < 자주 조회되는 응답 캐시 (LRU) >
+ *
+ * 값과 함께 만들 때의 버전(TableVersionRegistry.versionTag)을 저장하고, 조회할 때 버전이 같을 때만 사용한다.
+ * -> 테이블이 변경되면 버전이 바뀌므로 따로 만료시킬 필요가 없다. (오래된 값은 LRU로 밀려난다.)
+ * -> 감지하지 못한 변경(다른 서버, JdbcTemplate)은 버전에 포함된 시간 구간(HttpCacheProperties.maxAge)이 바뀔 때 반영된다.
+ * -> 버전은 조회 쿼리를 실행하기 전에 구해야 한다. 쿼리 도중에 변경이 커밋되면 새 데이터가 이전 버전으로 저장될 뿐이고,
+ *    다음 조회에서는 버전이 달라서 다시 조회하므로 오래된 데이터를 응답하지는 않는다.
+ *
+ * 주의) 캐시된 값은 여러 요청이 함께 사용하므로 변경하면 안된다.
+ * */
+public class VersionedResponseCache<K, V> {
+
+    private final int capacity;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public VersionedResponseCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > VersionedResponseCache.this.capacity;
+            }
+        };
+    }
+
+    public V get(K key, String version, Supplier<V> loader) {
+        if (capacity > 0) {
+            Entry<V> entry;
+            synchronized (entries) {
+                entry = entries.get(key);
+            }
+            if (entry != null && entry.version.equals(version)) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+        }
+
+        misses.incrementAndGet();
+        V value = loader.get();
+        if (capacity > 0) {
+            synchronized (entries) {
+                entries.put(key, new Entry<>(version, value));
+            }
+        }
+        return value;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static class Entry<V> {
+        private final String version;
+        private final V value;
+
+        private Entry(String version, V value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package study.datajpa.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+import study.datajpa.dto.CompactPage;
+
+import java.io.IOException;
+
+/*
+ * < CompactPage JSON 직렬화 >
+ * {"content":[...],"page":0,"size":20,"totalElements":100,"totalPages":5}
+ *
+ * content의 원소는 등록된 Serializer(ex. MemberDtoSerializer)로 쓴다.
+ * -> 원소마다 Serializer를 찾지 않고, 직전 원소와 타입이 같으면 그대로 사용한다.
+ * */
+@JsonComponent
+@SuppressWarnings("rawtypes")
+public class CompactPageSerializer extends StdSerializer<CompactPage> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    public CompactPageSerializer() {
+        super(CompactPage.class);
+    }
+
+    @Override
+    public void serialize(CompactPage page, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(page);
+
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray();
+        Class<?> elementType = null;
+        JsonSerializer<Object> elementSerializer = null;
+        for (Object element : page.getContent()) {
+            if (element == null) {
+                generator.writeNull();
+                continue;
+            }
+            if (element.getClass() != elementType) {
+                elementType = element.getClass();
+                elementSerializer = provider.findValueSerializer(elementType);
+            }
+            elementSerializer.serialize(element, generator, provider);
+        }
+        generator.writeEndArray();
+
+        generator.writeFieldName(PAGE);
+        generator.writeNumber(page.getPage());
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(page.getSize());
+        generator.writeFieldName(TOTAL_ELEMENTS);
+        generator.writeNumber(page.getTotalElements());
+        generator.writeFieldName(TOTAL_PAGES);
+        generator.writeNumber(page.getTotalPages());
+
+        generator.writeEndObject();
+    }
+}
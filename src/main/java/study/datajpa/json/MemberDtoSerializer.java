@@ -0,0 +1,52 @@
+package study.datajpa.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+import study.datajpa.dto.MemberDto;
+
+import java.io.IOException;
+
+/*
+ * < MemberDto JSON 직렬화 >
+ *
+ * 기본 BeanSerializer는 getter를 리플렉션(또는 생성된 accessor)으로 호출하고, 필드 이름도 매번 인코딩한다.
+ * -> 필드 이름은 미리 인코딩해둔 SerializedString을 사용하고, 값은 getter로 바로 쓴다.
+ * -> 출력은 기본 직렬화와 같다. (필드 순서, null 포함)
+ * */
+@JsonComponent
+public class MemberDtoSerializer extends StdSerializer<MemberDto> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+    public MemberDtoSerializer() {
+        super(MemberDto.class);
+    }
+
+    @Override
+    public void serialize(MemberDto member, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(member);
+
+        generator.writeFieldName(MEMBER_ID);
+        if (member.getMemberId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(member.getMemberId());
+        }
+
+        generator.writeFieldName(USERNAME);
+        generator.writeString(member.getUsername());
+
+        generator.writeFieldName(TEAM_NAME);
+        generator.writeString(member.getTeamName());
+
+        generator.writeEndObject();
+    }
+}
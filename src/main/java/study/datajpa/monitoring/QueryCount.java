@@ -0,0 +1,33 @@
+package study.datajpa.monitoring;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * 실행된 SQL 수와, 그 SQL을 실행한 Repository 메소드별 건수
+ * -> 요청 스레드와 작업 스레드(QueryCounter.propagate)가 함께 집계할 수 있으므로 동기화한다.
+ * */
+public class QueryCount {
+
+    private int total;
+    private final Map<String, Integer> countByInvocation = new LinkedHashMap<>();
+
+    synchronized void increment(String invocation) {
+        total++;
+        countByInvocation.merge(invocation, 1, Integer::sum);
+    }
+
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    public synchronized Map<String, Integer> getCountByInvocation() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(countByInvocation));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "QueryCount{total=" + total + ", countByInvocation=" + countByInvocation + "}";
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.monitoring;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+@EnableConfigurationProperties(QueryCountProperties.class)
+public class QueryCountConfig {
+
+    @Bean
+    public QueryCountInspector queryCountInspector(QueryCountProperties properties) {
+        return new QueryCountInspector(properties);
+    }
+
+    /*
+     * StatementInspector를 클래스명이 아니라 Spring Bean 인스턴스로 등록해서 설정값을 주입받을 수 있도록 한다.
+     * -> 다른 StatementInspector(TableChangeInspector)와 함께 실행된다.
+     * */
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer(QueryCountInspector queryCountInspector) {
+        return hibernateProperties -> StatementInspectors.register(hibernateProperties, queryCountInspector);
+    }
+
+    /*
+     * StreamingResponseBody 등 MVC 비동기 처리를 실행하는 스레드에도 요청의 QueryCount를 전달한다.
+     * -> Spring Boot가 applicationTaskExecutor(MVC 비동기 처리에 사용)를 만들 때 TaskDecorator Bean을 적용한다.
+     *    스레드 풀 크기와 대기열은 spring.task.execution.pool 로 제한한다.
+     * */
+    @Bean
+    public TaskDecorator queryCountTaskDecorator() {
+        return QueryCounter::propagate;
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(QueryCountProperties properties) {
+        return new QueryCountFilter(properties);
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+ * < HTTP 요청 단위 SQL 실행 횟수 >
+ *
+ * 요청 하나에서 실행된 SQL 수가 budget을 넘으면, 어떤 Repository 메소드가 몇 번 실행했는지 로그를 남긴다.
+ * ex) MemberController.list에서 MemberDto로 변환하면서 member.getTeam().getName()을 호출하면
+ *     "MemberRepository.findAll -> 지연 로딩"이 페이지 크기만큼 집계된다.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCountProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.reset();
+        RepositoryInvocationContext.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCount queryCount = QueryCounter.current();
+            if (queryCount.getTotal() > properties.getRequestBudget()) {
+                log.warn("요청에서 실행된 SQL 수가 budget({})을 초과했습니다. N+1을 의심해보자. {} {} {}",
+                        properties.getRequestBudget(), request.getMethod(), request.getRequestURI(), queryCount);
+            }
+            QueryCounter.reset();
+            RepositoryInvocationContext.clear();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * < SQL 실행 횟수 측정 >
+ *
+ * Hibernate가 SQL을 prepare 하기 직전에 호출된다. (SQL은 변경하지 않고 그대로 반환)
+ * -> 스레드 단위(QueryCounter)와 트랜잭션 단위로 집계하고, 트랜잭션이 끝났을 때 budget을 넘었으면 로그를 남긴다.
+ *
+ * 참고) JDBC batch는 prepare를 한 번만 하므로 1건으로 집계된다.
+ *      REQUIRES_NEW로 시작한 내부 트랜잭션의 SQL은 바깥 트랜잭션에 합산된다.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryCountInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object TRANSACTION_QUERY_COUNT_KEY = new Object();
+
+    private final QueryCountProperties properties;
+
+    @Override
+    public String inspect(String sql) {
+        String invocation = RepositoryInvocationContext.current();
+        QueryCounter.increment(invocation);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionQueryCount().increment(invocation);
+        }
+        return sql;
+    }
+
+    private QueryCount transactionQueryCount() {
+        QueryCount queryCount = (QueryCount) TransactionSynchronizationManager.getResource(TRANSACTION_QUERY_COUNT_KEY);
+        if (queryCount != null) {
+            return queryCount;
+        }
+
+        QueryCount newQueryCount = new QueryCount();
+        TransactionSynchronizationManager.bindResource(TRANSACTION_QUERY_COUNT_KEY, newQueryCount);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_QUERY_COUNT_KEY);
+                if (newQueryCount.getTotal() > properties.getTransactionBudget()) {
+                    log.warn("트랜잭션에서 실행된 SQL 수가 budget({})을 초과했습니다. N+1을 의심해보자. {}",
+                            properties.getTransactionBudget(), newQueryCount);
+                }
+            }
+        });
+        return newQueryCount;
+    }
+}
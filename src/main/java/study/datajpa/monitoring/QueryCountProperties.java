@@ -0,0 +1,17 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.query-count")
+public class QueryCountProperties {
+
+    // HTTP 요청 하나에서 허용하는 SQL 수
+    private int requestBudget = 10;
+
+    // 트랜잭션 하나에서 허용하는 SQL 수
+    private int transactionBudget = 10;
+}
@@ -0,0 +1,51 @@
+package study.datajpa.monitoring;
+
+/*
+ * < 스레드 단위 SQL 실행 횟수 >
+ *
+ * QueryCountInspector가 SQL을 실행할 때마다 증가시킨다.
+ * -> HTTP 요청은 QueryCountFilter가 요청 시작 시점에 reset 한다.
+ * -> 테스트에서는 reset() 후 QueryCountAssertions.assertQueryCount()로 검증한다.
+ *
+ * < 다른 스레드에서 실행되는 작업 >
+ * RepositoryExecutor(PARALLEL count, 비동기 Repository), StreamingResponseBody를 실행하는 스레드는 요청 스레드가 아니다.
+ * -> propagate()로 감싸면 작업을 등록한 스레드의 QueryCount에 집계되고, 작업이 끝나면 작업 스레드의 값은 지워진다.
+ *    (스레드 풀의 스레드에 이전 작업의 집계가 계속 쌓이지 않는다.)
+ * 주의) 요청이 끝난 후에도 실행되는 작업(StreamingResponseBody)의 SQL은 QueryCountFilter의 budget 확인에 포함되지 않는다.
+ * */
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCount> CURRENT = ThreadLocal.withInitial(QueryCount::new);
+
+    private QueryCounter() {
+    }
+
+    static void increment(String invocation) {
+        CURRENT.get().increment(invocation);
+    }
+
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    public static void reset() {
+        CURRENT.remove();
+    }
+
+    public static Runnable propagate(Runnable task) {
+        QueryCount queryCount = CURRENT.get();
+        String invocation = RepositoryInvocationContext.running();
+        return () -> {
+            CURRENT.set(queryCount);
+            if (invocation != null) {
+                RepositoryInvocationContext.push(invocation);
+            }
+            try {
+                task.run();
+            } finally {
+                CURRENT.remove();
+                RepositoryInvocationContext.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Repository 메소드가 실행되는 동안 RepositoryInvocationContext에 "Repository명.메소드명"을 기록한다.
+ * -> Spring Data JPA Repository (interface)와 @Repository 클래스 모두 대상이다.
+ *
+ * 실행 시간은 datajpa.repository.invocation 타이머에 기록한다. (repository, method, outcome 태그)
+ * -> /actuator/metrics/datajpa.repository.invocation?tag=repository:MemberRepository
+ * */
+@Aspect
+@Component
+public class RepositoryInvocationAspect {
+
+    private static final String TIMER_NAME = "datajpa.repository.invocation";
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /*
+     * Aspect는 다른 Bean보다 먼저 생성되므로, MeterRegistry는 처음 사용할 때 조회한다.
+     * */
+    public RepositoryInvocationAspect(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("target(org.springframework.data.repository.Repository) || @within(org.springframework.stereotype.Repository)")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repositoryName = repositoryName(joinPoint.getTarget());
+        String methodName = joinPoint.getSignature().getName();
+
+        RepositoryInvocationContext.push(repositoryName + "." + methodName);
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = joinPoint.proceed();
+            success = true;
+            return result;
+        } finally {
+            RepositoryInvocationContext.pop();
+            record(repositoryName, methodName, success, System.nanoTime() - startTime);
+        }
+    }
+
+    /*
+     * Stream을 반환하는 메소드는 Stream을 소비하는 시간이 포함되지 않는다.
+     * */
+    private void record(String repositoryName, String methodName, boolean success, long elapsedNanos) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+
+        String outcome = success ? "success" : "error";
+        Timer timer = timers.computeIfAbsent(repositoryName + "." + methodName + ":" + outcome,
+                key -> Timer.builder(TIMER_NAME)
+                        .tag("repository", repositoryName)
+                        .tag("method", methodName)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry));
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String repositoryName(Object target) {
+        return repositoryNames.computeIfAbsent(target.getClass(), targetClass -> {
+            // Spring Data JPA Repository는 JDK 동적 프록시이므로, 프록시가 구현한 Repository 인터페이스의 이름을 사용한다.
+            for (Class<?> candidate : targetClass.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate) && !candidate.getName().startsWith("org.springframework")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return AopUtils.getTargetClass(target).getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/*
+ * < 현재 스레드에서 실행 중인 Repository 메소드 >
+ *
+ * SQL이 어떤 Repository 메소드 때문에 실행되었는지 알기 위해서 사용한다.
+ * -> Repository 메소드 밖에서 실행된 SQL은 대부분 지연 로딩이므로, 마지막으로 실행된 Repository 메소드와 함께 표시한다.
+ *    (ex. "MemberRepository.findAll -> 지연 로딩")
+ * */
+public final class RepositoryInvocationContext {
+
+    private static final String LAZY_LOADING_SUFFIX = " -> 지연 로딩";
+    private static final String UNKNOWN = "(unknown)";
+
+    private static final ThreadLocal<Deque<String>> INVOCATIONS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<String> LAST_INVOCATION = new ThreadLocal<>();
+
+    private RepositoryInvocationContext() {
+    }
+
+    public static void push(String invocation) {
+        INVOCATIONS.get().push(invocation);
+    }
+
+    public static void pop() {
+        Deque<String> invocations = INVOCATIONS.get();
+        String invocation = invocations.pop();
+        if (invocations.isEmpty()) {
+            LAST_INVOCATION.set(invocation);
+        }
+    }
+
+    /*
+     * 실행 중인 Repository 메소드 (없으면 null)
+     * */
+    static String running() {
+        return INVOCATIONS.get().peek();
+    }
+
+    public static String current() {
+        String invocation = INVOCATIONS.get().peek();
+        if (invocation != null) {
+            return invocation;
+        }
+
+        String lastInvocation = LAST_INVOCATION.get();
+        return lastInvocation == null ? UNKNOWN : lastInvocation + LAZY_LOADING_SUFFIX;
+    }
+
+    public static void clear() {
+        INVOCATIONS.remove();
+        LAST_INVOCATION.remove();
+    }
+}
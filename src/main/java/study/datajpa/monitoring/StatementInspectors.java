@@ -0,0 +1,27 @@
+package study.datajpa.monitoring;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Map;
+
+/*
+ * Hibernate에는 StatementInspector를 하나만 등록할 수 있으므로, 이미 등록된 것이 있으면 이어서 실행한다.
+ * -> HibernatePropertiesCustomizer의 실행 순서와 상관없이 모두 실행된다.
+ * */
+public final class StatementInspectors {
+
+    private StatementInspectors() {
+    }
+
+    public static void register(Map<String, Object> hibernateProperties, StatementInspector inspector) {
+        Object registered = hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        if (registered instanceof StatementInspector) {
+            StatementInspector previous = (StatementInspector) registered;
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> inspector.inspect(previous.inspect(sql)));
+        } else {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
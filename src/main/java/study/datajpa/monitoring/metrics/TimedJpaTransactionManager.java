@@ -0,0 +1,103 @@
+package study.datajpa.monitoring.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * < 트랜잭션 시간 측정 >
+ *
+ * datajpa.transaction.duration: 트랜잭션 시작(커넥션 획득 포함) ~ 종료까지의 시간 (read-only 태그)
+ * datajpa.transaction.commit: 커밋 시간 (flush 포함)
+ * datajpa.transaction.rollback: 롤백 시간
+ *
+ * -> duration이 길면 트랜잭션이 커넥션을 오래 잡고 있는 것이므로, 커넥션 풀 크기보다 트랜잭션 범위를 먼저 확인하자.
+ * */
+public class TimedJpaTransactionManager extends JpaTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    // REQUIRES_NEW로 트랜잭션이 중첩될 수 있으므로 스택으로 관리한다.
+    private final ThreadLocal<Deque<Begin>> begins = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Timer readWriteDuration;
+    private final Timer readOnlyDuration;
+    private final Timer commit;
+    private final Timer rollback;
+
+    public TimedJpaTransactionManager(MeterRegistry meterRegistry) {
+        this.readWriteDuration = durationTimer(meterRegistry, false);
+        this.readOnlyDuration = durationTimer(meterRegistry, true);
+        this.commit = Timer.builder("datajpa.transaction.commit")
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+        this.rollback = Timer.builder("datajpa.transaction.rollback")
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+    }
+
+    private static Timer durationTimer(MeterRegistry meterRegistry, boolean readOnly) {
+        return Timer.builder("datajpa.transaction.duration")
+                .tag("read-only", String.valueOf(readOnly))
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        long startTime = System.nanoTime();
+        super.doBegin(transaction, definition);
+        begins.get().push(new Begin(startTime, definition.isReadOnly()));
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        long startTime = System.nanoTime();
+        try {
+            super.doCommit(status);
+        } finally {
+            commit.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        long startTime = System.nanoTime();
+        try {
+            super.doRollback(status);
+        } finally {
+            rollback.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            Begin begin = begins.get().poll();
+            if (begin != null) {
+                Timer duration = begin.readOnly ? readOnlyDuration : readWriteDuration;
+                duration.record(System.nanoTime() - begin.startTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static class Begin {
+        private final long startTime;
+        private final boolean readOnly;
+
+        private Begin(long startTime, boolean readOnly) {
+            this.startTime = startTime;
+            this.readOnly = readOnly;
+        }
+    }
+}
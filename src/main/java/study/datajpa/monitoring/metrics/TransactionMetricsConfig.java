@@ -0,0 +1,28 @@
+package study.datajpa.monitoring.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/*
+ * Spring Boot가 등록하는 JpaTransactionManager 대신 TimedJpaTransactionManager를 등록한다.
+ * -> spring.transaction.* 설정은 TransactionManagerCustomizers로 그대로 적용한다.
+ * */
+@Configuration
+public class TransactionMetricsConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers,
+                                                         MeterRegistry meterRegistry) {
+        TimedJpaTransactionManager transactionManager = new TimedJpaTransactionManager(meterRegistry);
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+        customizers.ifAvailable(it -> it.customize(transactionManager));
+        return transactionManager;
+    }
+}
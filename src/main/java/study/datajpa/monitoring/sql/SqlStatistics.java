@@ -0,0 +1,70 @@
+package study.datajpa.monitoring.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * < Repository 메소드별 SQL 통계 >
+ *
+ * 여러 스레드가 동시에 기록하므로 락 없이 LongAdder로 집계한다.
+ * 응답 시간 히스토그램은 2의 거듭제곱(ms) 구간으로 나눈다. (<1ms, <2ms, <4ms ... <1024ms, >=1024ms)
+ * */
+public class SqlStatistics {
+
+    private static final int BUCKET_COUNT = 12;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder[] latencyBuckets = new LongAdder[BUCKET_COUNT];
+
+    public SqlStatistics() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            latencyBuckets[i] = new LongAdder();
+        }
+    }
+
+    void recordExecution(long elapsedNanos, boolean success) {
+        executions.increment();
+        if (!success) {
+            errors.increment();
+        }
+        totalNanos.add(elapsedNanos);
+        latencyBuckets[bucketIndex(elapsedNanos)].increment();
+    }
+
+    void recordRows(long rowCount) {
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+    }
+
+    private static int bucketIndex(long elapsedNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (millis < 1) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(millis), BUCKET_COUNT - 1);
+    }
+
+    public Map<String, Object> snapshot() {
+        long executionCount = executions.sum();
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            histogram.put("<" + (1L << i) + "ms", latencyBuckets[i].sum());
+        }
+        histogram.put(">=" + (1L << (BUCKET_COUNT - 2)) + "ms", latencyBuckets[BUCKET_COUNT - 1].sum());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("executions", executionCount);
+        snapshot.put("errors", errors.sum());
+        snapshot.put("rows", rows.sum());
+        snapshot.put("avgMillis", executionCount == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / executionCount);
+        snapshot.put("latency", histogram);
+        return snapshot;
+    }
+}
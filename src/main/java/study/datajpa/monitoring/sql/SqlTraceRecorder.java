@@ -0,0 +1,63 @@
+package study.datajpa.monitoring.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import study.datajpa.monitoring.RepositoryInvocationContext;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * < 샘플링 SQL 추적 >
+ *
+ * 모든 SQL의 응답 시간, row 수는 Repository 메소드별 통계(SqlStatistics)로만 집계하고,
+ * SQL 문과 파라미터를 포함한 전체 로그는 샘플링되었거나 느린 SQL만 남긴다.
+ * -> p6spy처럼 매번 SQL 문자열을 포맷팅하지 않기 때문에 운영 환경에서도 켜둘 수 있다.
+ * */
+@Slf4j
+public class SqlTraceRecorder {
+
+    private final Map<String, SqlStatistics> statisticsByInvocation = new ConcurrentHashMap<>();
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public SqlTraceRecorder(SqlTracingProperties properties) {
+        this.sampleRate = properties.getSampleRate();
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    }
+
+    /*
+     * SQL 실행 후 호출된다. 반환한 SqlStatistics에 나중에 row 수를 추가로 기록한다. (ResultSet을 다 읽은 후)
+     * */
+    SqlStatistics recordExecution(String sql, Object[] parameters, long elapsedNanos, long rowCount, boolean success) {
+        String invocation = RepositoryInvocationContext.current();
+        SqlStatistics statistics = statisticsByInvocation.computeIfAbsent(invocation, key -> new SqlStatistics());
+        statistics.recordExecution(elapsedNanos, success);
+        statistics.recordRows(rowCount);
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("[slow sql] {}ms {} | {} | parameters={}",
+                    elapsedNanos / 1_000_000, invocation, sql, formatParameters(parameters));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("[sampled sql] {}ms {} | {} | parameters={}",
+                    elapsedNanos / 1_000_000, invocation, sql, formatParameters(parameters));
+        }
+        return statistics;
+    }
+
+    private String formatParameters(Object[] parameters) {
+        return parameters == null ? "[]" : Arrays.toString(parameters);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        statisticsByInvocation.forEach((invocation, statistics) -> snapshot.put(invocation, statistics.snapshot()));
+        return snapshot;
+    }
+
+    public void reset() {
+        statisticsByInvocation.clear();
+    }
+}
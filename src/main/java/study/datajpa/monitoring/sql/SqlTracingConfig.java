@@ -0,0 +1,40 @@
+package study.datajpa.monitoring.sql;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/*
+ * datajpa.sql-tracing.enabled: true 이면 DataSource를 TracingDataSource로 감싼다.
+ * */
+@Configuration
+@EnableConfigurationProperties(SqlTracingProperties.class)
+@ConditionalOnProperty(prefix = "datajpa.sql-tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTracingConfig {
+
+    @Bean
+    public SqlTraceRecorder sqlTraceRecorder(SqlTracingProperties properties) {
+        return new SqlTraceRecorder(properties);
+    }
+
+    /*
+     * BeanPostProcessor는 다른 Bean보다 먼저 생성되므로 static으로 선언하고, SqlTraceRecorder는 지연 조회한다.
+     * */
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<SqlTraceRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource((DataSource) bean, recorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
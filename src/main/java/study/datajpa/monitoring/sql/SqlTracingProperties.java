@@ -0,0 +1,21 @@
+package study.datajpa.monitoring.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.sql-tracing")
+public class SqlTracingProperties {
+
+    private boolean enabled = true;
+
+    // 파라미터까지 포함한 전체 로그를 남길 SQL의 비율 (0.0 ~ 1.0)
+    private double sampleRate = 0.01;
+
+    // 이 시간보다 오래 걸린 SQL은 샘플링과 상관없이 전체 로그를 남긴다.
+    private Duration slowThreshold = Duration.ofMillis(200);
+}
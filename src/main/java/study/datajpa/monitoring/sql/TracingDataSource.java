@@ -0,0 +1,208 @@
+package study.datajpa.monitoring.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Arrays;
+
+/*
+ * < SQL 추적용 DataSource >
+ *
+ * Connection, Statement, ResultSet을 동적 프록시로 감싸서 실행 시간과 row 수를 측정한다.
+ * -> 파라미터는 setXxx() 호출 시 배열에 참조만 저장해두고, 로그를 남길 때만 문자열로 변환한다.
+ * -> DelegatingDataSource를 상속했기 때문에 HikariDataSource로 unwrap 할 수 있다. (커넥션 풀 메트릭 등)
+ * */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private final SqlTraceRecorder recorder;
+
+    public TracingDataSource(DataSource targetDataSource, SqlTraceRecorder recorder) {
+        super(targetDataSource);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+
+            Object result = TracingDataSource.invoke(target, method, args);
+
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+            }
+            if (result instanceof Statement) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] parameters;
+        private ResultSetHandler openResultSet;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                captureParameter((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters = null;
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            } else if ("close".equals(name)) {
+                finishResultSet();
+            }
+            return TracingDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            finishResultSet();
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = TracingDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                recorder.recordExecution(sql, parameters, System.nanoTime() - start, 0, false);
+                throw e;
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            SqlStatistics statistics = recorder.recordExecution(sql, parameters, elapsedNanos, updateCount(result), true);
+            if (result instanceof ResultSet) {
+                openResultSet = new ResultSetHandler((ResultSet) result, statistics);
+                return proxy(ResultSet.class, openResultSet);
+            }
+            return result;
+        }
+
+        private long updateCount(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return ((Number) result).longValue();
+            }
+            if (result instanceof int[]) {
+                return Arrays.stream((int[]) result).filter(count -> count > 0).asLongStream().sum();
+            }
+            if (result instanceof long[]) {
+                return Arrays.stream((long[]) result).filter(count -> count > 0).sum();
+            }
+            return 0;
+        }
+
+        private void captureParameter(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(index, 8)];
+            } else if (parameters.length < index) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+        }
+
+        private void finishResultSet() {
+            if (openResultSet != null) {
+                openResultSet.finish();
+                openResultSet = null;
+            }
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final SqlStatistics statistics;
+        private long rowCount;
+        private boolean finished;
+
+        private ResultSetHandler(ResultSet target, SqlStatistics statistics) {
+            this.target = target;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("next".equals(name)) {
+                Object hasNext = TracingDataSource.invoke(target, method, args);
+                if (Boolean.TRUE.equals(hasNext)) {
+                    rowCount++;
+                }
+                return hasNext;
+            }
+            if ("close".equals(name)) {
+                finish();
+            } else if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            return TracingDataSource.invoke(target, method, args);
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                statistics.recordRows(rowCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemCustomRepository {
+
+    /*
+     * 새로운 엔티티라고 확신할 수 있을 때 사용한다. (merge를 위한 SELECT 없이 항상 persist)
+     * */
+    int insertAll(Iterable<Item> items, int batchSize);
+
+    /*
+     * 이미 존재하는 id는 무시하고, 존재하지 않는 id만 INSERT 한다. (insert-or-ignore)
+     * */
+    int insertIgnoreAll(Collection<Item> items, int batchSize);
+}
@@ -0,0 +1,228 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import javax.persistence.EntityManager;
+import java.sql.BatchUpdateException;
+import java.sql.DatabaseMetaData;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * < 직접 할당하는 id(String)의 대량 저장 >
+ *
+ * save()는 isNew()가 false라고 판단하면 merge()를 호출하고, merge()는 SELECT 쿼리를 먼저 실행한다.
+ * 외부에서 받은 id로 대량의 데이터를 적재할 때는 row 마다 Database를 두 번 왕복하게 된다.
+ * */
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemCustomRepository {
+
+    /*
+     * 이미 존재하는 id는 무시하는 INSERT (Database마다 문법이 다르다.)
+     * -> 각 Database가 제공하는 문법은 unique 제약조건 위반을 Database가 직접 무시한다. (H2의 MERGE는 제외, 아래 참고)
+     * -> 전용 문법이 없는 Database는 "insert ... select ... where not exists"를 사용한다. (파라미터 4개)
+     *    확인과 INSERT 사이에 다른 트랜잭션이 같은 id를 INSERT 할 수 있다. (아래 참고)
+     * */
+    private static final String H2_INSERT_IGNORE_SQL =
+            "merge into item using (select cast(? as varchar) id, cast(? as timestamp) created_date," +
+                    " cast(? as timestamp) last_modified_date) source" +
+                    " on item.id = source.id" +
+                    " when not matched then insert (id, created_date, last_modified_date)" +
+                    " values (source.id, source.created_date, source.last_modified_date)";
+    private static final String MYSQL_INSERT_IGNORE_SQL =
+            "insert ignore into item (id, created_date, last_modified_date) values (?, ?, ?)";
+    private static final String POSTGRESQL_INSERT_IGNORE_SQL =
+            "insert into item (id, created_date, last_modified_date) values (?, ?, ?) on conflict (id) do nothing";
+
+    private static final String PORTABLE_INSERT_IGNORE_SQL =
+            "insert into item (id, created_date, last_modified_date) select ?, ?, ? from dual" +
+                    " where not exists (select 1 from item where id = ?)";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String insertIgnoreSql;
+
+    /*
+     * isNew() 판단 없이 항상 persist 하고, batchSize 마다 flush(JDBC batch INSERT), clear 한다.
+     * 주의) 이미 존재하는 id가 있으면 flush 할 때 예외(DataIntegrityViolationException)가 발생한다.
+     * */
+    @Override
+    @Transactional
+    public int insertAll(Iterable<Item> items, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다.");
+        }
+
+        int count = 0;
+        for (Item item : items) {
+            entityManager.persist(item);
+
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+
+    /*
+     * 영속성 컨텍스트를 거치지 않고 JDBC batch로 바로 실행한다.
+     * -> Auditing이 동작하지 않으므로 createdDate, lastModifiedDate는 직접 채운다.
+     * -> 반환 값은 실제로 INSERT 된 row 수이다. (이미 존재해서 무시된 id는 제외)
+     * -> 같은 트랜잭션에서 persist 하고 아직 flush 하지 않은 Item이 있으면 먼저 flush 한다. (그래야 중복으로 판단된다.)
+     *
+     * H2의 MERGE와 "where not exists"는 다른 트랜잭션이 동시에 같은 id를 INSERT 하면 unique 제약조건 위반이 발생할 수 있다.
+     * -> BatchUpdateException의 updateCounts에서 실패한(EXECUTE_FAILED) 항목과 실행되지 않은 항목만 한 건씩 다시 실행한다.
+     *    (다시 실행할 때는 이미 존재하므로 무시된다. 성공한 항목의 row 수는 updateCounts 에서 가져온다.)
+     * */
+    @Override
+    @Transactional
+    public int insertIgnoreAll(Collection<Item> items, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다.");
+        }
+
+        entityManager.flush();
+
+        String sql = insertIgnoreSql();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Item> itemList = new ArrayList<>(items);
+
+        int inserted = 0;
+        for (int from = 0; from < itemList.size(); from += batchSize) {
+            List<Item> batch = itemList.subList(from, Math.min(from + batchSize, itemList.size()));
+            inserted += insertIgnoreBatch(sql, batch, now);
+        }
+        return inserted;
+    }
+
+    private int insertIgnoreBatch(String sql, List<Item> batch, Timestamp now) {
+        int[] rowCounts;
+        try {
+            rowCounts = jdbcTemplate.batchUpdate(sql, parameters(sql, batch, now));
+        } catch (DuplicateKeyException e) {
+            BatchUpdateException batchUpdateException = findBatchUpdateException(e);
+            if (batchUpdateException == null) {
+                throw e;
+            }
+            rowCounts = retryFailed(sql, batch, now, batchUpdateException.getUpdateCounts());
+        }
+
+        int inserted = 0;
+        boolean unknown = false;
+        for (int rowCount : rowCounts) {
+            if (rowCount == Statement.SUCCESS_NO_INFO) {
+                unknown = true;
+            } else if (rowCount > 0) {
+                inserted += rowCount;
+            }
+        }
+        return unknown ? countInsertedBy(batch, now) : inserted;
+    }
+
+    /*
+     * 드라이버에 따라 실패한 항목 이후를 실행하지 않으면 updateCounts가 batch 보다 짧다. (실행되지 않은 항목도 다시 실행한다.)
+     * */
+    private int[] retryFailed(String sql, List<Item> batch, Timestamp now, int[] updateCounts) {
+        int[] rowCounts = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            if (i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED) {
+                rowCounts[i] = updateCounts[i];
+                continue;
+            }
+
+            try {
+                rowCounts[i] = jdbcTemplate.update(sql, parameters(sql, batch.get(i), now));
+            } catch (DuplicateKeyException e) {
+                // 다시 실행하는 사이에도 다른 트랜잭션이 같은 id를 INSERT 했다. (무시한다.)
+                rowCounts[i] = 0;
+            }
+        }
+        return rowCounts;
+    }
+
+    private static BatchUpdateException findBatchUpdateException(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException) {
+                return (BatchUpdateException) cause;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * 드라이버가 row 수를 알려주지 않으면(Statement.SUCCESS_NO_INFO, ex. MySQL rewriteBatchedStatements)
+     * 이번에 INSERT 한 createdDate를 가진 row 수를 센다.
+     * */
+    private int countInsertedBy(List<Item> batch, Timestamp now) {
+        String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(now);
+        batch.forEach(item -> parameters.add(item.getId()));
+
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from item where created_date = ? and id in (" + placeholders + ")",
+                Integer.class, parameters.toArray());
+        return count == null ? 0 : count;
+    }
+
+    private static List<Object[]> parameters(String sql, List<Item> batch, Timestamp now) {
+        List<Object[]> parameters = new ArrayList<>(batch.size());
+        for (Item item : batch) {
+            parameters.add(parameters(sql, item, now));
+        }
+        return parameters;
+    }
+
+    private static Object[] parameters(String sql, Item item, Timestamp now) {
+        if (PORTABLE_INSERT_IGNORE_SQL.equals(sql)) {
+            return new Object[] { item.getId(), now, now, item.getId() };
+        }
+        return new Object[] { item.getId(), now, now };
+    }
+
+    private String insertIgnoreSql() {
+        if (insertIgnoreSql == null) {
+            insertIgnoreSql = insertIgnoreSql(databaseName());
+        }
+        return insertIgnoreSql;
+    }
+
+    private String databaseName() {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return JdbcUtils.commonDatabaseName(productName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Database 종류를 확인할 수 없습니다.", e);
+        }
+    }
+
+    static String insertIgnoreSql(String databaseName) {
+        switch (databaseName) {
+            case "H2":
+                return H2_INSERT_IGNORE_SQL;
+            case "MySQL":
+            case "MariaDB":
+                return MYSQL_INSERT_IGNORE_SQL;
+            case "PostgreSQL":
+                return POSTGRESQL_INSERT_IGNORE_SQL;
+            default:
+                return PORTABLE_INSERT_IGNORE_SQL;
+        }
+    }
+}
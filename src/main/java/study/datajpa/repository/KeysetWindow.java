@@ -0,0 +1,37 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * < Keyset 페이징 결과 >
+ *
+ * Page와 다르게 count 쿼리도, offset도 없다.
+ * 다음 페이지를 조회할 때는 nextCursor를 그대로 넘겨주면 된다. (마지막 페이지면 null)
+ * */
+@Getter
+public class KeysetWindow<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public KeysetWindow(List<T> content, String nextCursor) {
+        this.content = Collections.unmodifiableList(content);
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <U> KeysetWindow<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream()
+                .map(converter)
+                .collect(Collectors.toList());
+        return new KeysetWindow<>(converted, nextCursor);
+    }
+}
@@ -0,0 +1,45 @@
+package study.datajpa.repository;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+ * < Keyset(Seek) 페이징의 커서 >
+ *
+ * 마지막으로 조회한 (username, member_id) 값을 기억해두고, 다음 페이지는 그 이후의 값부터 조회한다.
+ * 클라이언트에게는 Base64로 인코딩된 불투명(opaque) 토큰으로만 전달하기 때문에
+ * 내부 구조가 바뀌어도 API에는 영향이 없다.
+ * */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberCursor {
+
+    private static final String DELIMITER = "\u0000";
+
+    private final String username;
+    private final Long memberId;
+
+    public static MemberCursor of(Member member) {
+        return new MemberCursor(member.getUsername(), member.getId());
+    }
+
+    public static MemberCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = decoded.lastIndexOf(DELIMITER);
+            return new MemberCursor(decoded.substring(0, index), Long.valueOf(decoded.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("유효하지 않은 커서입니다.", e);
+        }
+    }
+
+    public String encode() {
+        String raw = (username == null ? "" : username) + DELIMITER + memberId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,53 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.count.CountMode;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MemberCustomRepository {
     List<Member> findMemberCustom();
+
+    /*
+     * cursor가 null이면 첫 페이지를 조회한다.
+     * */
+    KeysetWindow<Member> findWindowByUsername(String cursor, int size);
+
+    /*
+     * count 쿼리 전략을 호출하는 쪽에서 고를 수 있는 페이징
+     * */
+    Page<Member> findPageByAge(int age, Pageable pageable, CountMode countMode);
+
+    Page<Member> findAll(Pageable pageable, CountMode countMode);
+
+    /*
+     * 회원을 페이징한 후, 회원들의 팀(프록시)을 batchSize 단위의 IN 절로 함께 초기화한다.
+     * */
+    Page<Member> findPageWithTeam(Pageable pageable, int batchSize);
+
+    /*
+     * batchSize 만큼 persist 할 때마다 flush, clear 해서 영속성 컨텍스트의 메모리를 일정하게 유지한다.
+     * */
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+
+    /*
+     * 전체 Member를 fetchSize 단위로 읽으면서 consumer에 넘기고, detachInterval 마다 영속성 컨텍스트를 비운다.
+     * */
+    long scrollAll(int fetchSize, int detachInterval, Consumer<Member> consumer);
+
+    /*
+     * bulkAgePlus를 chunkSize 만큼의 id 범위로 나눠서, 범위마다 별도의 트랜잭션으로 실행한다.
+     * -> 영속성 컨텍스트와 2차 캐시에서는 변경된 Member만 제거한다.
+     * */
+    long bulkAgePlusInChunks(int age, int chunkSize, int parallelism);
+
+    /*
+     * findProjectionsByUsername와 같지만, 중첩 프로젝션이나 DTO도 엔티티를 조회하지 않고 필요한 컬럼만 조회한다.
+     * */
+    <T> List<T> findProjectedByUsername(String username, Class<T> type);
+
+    <T> List<T> findAllProjected(Class<T> type);
 }
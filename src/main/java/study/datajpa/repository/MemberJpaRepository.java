@@ -1,19 +1,29 @@
 package study.datajpa.repository;
 
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.count.CountStrategies;
+import study.datajpa.repository.readonly.ReadOnlyRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@ReadOnlyRepository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final CountStrategies countStrategies;
+
     public Member save(Member member) {
         entityManager.persist(member);
         return member;
@@ -28,6 +38,16 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /*
+     * getResultStream()도 Hibernate 내부적으로 ScrollableResults를 사용한다.
+     * -> 트랜잭션 안에서 사용하고, 다 사용하면 꼭 close 해야한다.
+     * */
+    public Stream<Member> streamAll(int fetchSize) {
+        return entityManager.createQuery("select m from Member m", Member.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
     public Member find(Long id) {
         return entityManager.find(Member.class, id);
     }
@@ -64,13 +84,21 @@ public class MemberJpaRepository {
     }
 
     public long totalCount(int age) {
-        return entityManager.createQuery("select count(m) from Member m where m.age = :age", Long.class)
-                .setParameter("age", age)
-                .getSingleResult();
+        return totalCount(age, CountMode.EXACT);
+    }
+
+    /*
+     * CountMode.CACHED 이면 캐시된 count를 사용한다. (where 조건이 있으므로 ESTIMATED는 EXACT로 실행된다.)
+     * */
+    public long totalCount(int age, CountMode countMode) {
+        return countStrategies.get(countMode, true).count(Member.class, "totalCount:" + age,
+                () -> entityManager.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
     }
 
     public int bulkAgePlus(int age) {
-        return entityManager.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return entityManager.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1, m.lastModifiedDate = current_timestamp where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
     }
@@ -1,14 +1,124 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Member_;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.Team_;
+import study.datajpa.repository.readonly.ReadOnlyRepository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.util.ArrayList;
+import java.util.List;
 
+/*
+ * < 동적 쿼리 (Criteria API + JPA Metamodel) >
+ *
+ * findByUsernameAndAgeGreaterThan 처럼 조건 조합마다 메소드를 만들지 않고, 검색 조건에 값이 있는 것만 where 절에 추가한다.
+ * -> Member_, Team_ 은 hibernate-jpamodelgen이 컴파일할 때 생성하므로, 속성 이름이 바뀌면 컴파일 에러가 난다.
+ *
+ * < 쿼리 플랜 캐시 >
+ * Hibernate는 Criteria를 JPQL로 변환한 후, JPQL 문자열을 키로 파싱 결과(쿼리 플랜)를 캐시한다.
+ * 모든 값을 파라미터(cb.parameter)로 바인딩하기 때문에, 값이 달라도 조건의 조합(shape)이 같으면 같은 JPQL이 만들어지고
+ * 쿼리 플랜을 재사용한다. (값을 리터럴로 넣으면 값마다 다른 JPQL이 만들어져서 캐시가 계속 늘어난다.)
+ * -> application.yml의 hibernate.criteria.literal_handling_mode: bind
+ * */
 @Repository
+@ReadOnlyRepository
 @RequiredArgsConstructor
 public class MemberQueryRepository {
 
     private final EntityManager entityManager;
 
+    public Page<Member> search(MemberSearchCondition condition, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Member> contentQuery = cb.createQuery(Member.class);
+        Root<Member> member = contentQuery.from(Member.class);
+        contentQuery.select(member)
+                .where(predicates(cb, member, joinTeam(member, condition), condition))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), member, cb));
+
+        TypedQuery<Member> query = entityManager.createQuery(contentQuery);
+        bindParameters(query, condition);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(condition));
+    }
+
+    private long count(MemberSearchCondition condition) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Member> member = countQuery.from(Member.class);
+        // count 쿼리는 fetch join 하지 않고, 팀 이름 조건이 있을 때만 join 한다.
+        Join<Member, Team> team = condition.getTeamName() != null ? member.join(Member_.team) : null;
+        countQuery.select(cb.count(member))
+                .where(predicates(cb, member, team, condition));
+
+        TypedQuery<Long> query = entityManager.createQuery(countQuery);
+        bindParameters(query, condition);
+        return query.getSingleResult();
+    }
+
+    /*
+     * 1. fetchTeam = true: 팀이 없는 회원도 조회해야 하므로 left fetch join
+     * 2. 팀 이름 조건만 있는 경우: 팀은 조회하지 않고 join만 한다.
+     * 3. 둘 다 아니면 join 하지 않는다.
+     * */
+    @SuppressWarnings("unchecked")
+    private From<Member, Team> joinTeam(Root<Member> member, MemberSearchCondition condition) {
+        if (condition.isFetchTeam()) {
+            // Hibernate의 Fetch 구현체는 Join이기도 하므로, fetch join 한 팀에 조건을 걸 수 있다.
+            return (Join<Member, Team>) member.fetch(Member_.team, JoinType.LEFT);
+        }
+        if (condition.getTeamName() != null) {
+            return member.join(Member_.team);
+        }
+        return null;
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<Member> member, From<Member, Team> team,
+                                   MemberSearchCondition condition) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (condition.getUsername() != null) {
+            predicates.add(cb.equal(member.get(Member_.username), cb.parameter(String.class, "username")));
+        }
+        if (condition.getAgeGoe() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(member.get(Member_.age), cb.parameter(Integer.class, "ageGoe")));
+        }
+        if (condition.getAgeLoe() != null) {
+            predicates.add(cb.lessThanOrEqualTo(member.get(Member_.age), cb.parameter(Integer.class, "ageLoe")));
+        }
+        if (condition.getTeamName() != null) {
+            predicates.add(cb.equal(team.get(Team_.name), cb.parameter(String.class, "teamName")));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private void bindParameters(TypedQuery<?> query, MemberSearchCondition condition) {
+        if (condition.getUsername() != null) {
+            query.setParameter("username", condition.getUsername());
+        }
+        if (condition.getAgeGoe() != null) {
+            query.setParameter("ageGoe", condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            query.setParameter("ageLoe", condition.getAgeLoe());
+        }
+        if (condition.getTeamName() != null) {
+            query.setParameter("teamName", condition.getTeamName());
+        }
+    }
 }
@@ -7,12 +7,14 @@ import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.readonly.ReadOnlyRepository;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /*
 * 구현체를 개발자가 만들어준 적이 없고, Interface만 있는데 어떻게 동작할까?
@@ -21,6 +23,7 @@ import java.util.Optional;
 * @Repository 어노테이션 생략 가능
 * -> Spring Data JPA가 Component Scan을 자동으로 처리하기 때문에 생략해도 된다.
 */
+@ReadOnlyRepository
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberCustomRepository {
     /*
      * 메소드 이름으로 쿼리 생성 (반드시 관례를 지켜서 작성해야함)
@@ -60,12 +63,43 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     // 리스트
     List<Member> findMembersByUsername(String username);
 
+    /*
+    * 쿼리 캐시 (org.hibernate.cacheable)
+    * -> 쿼리 결과로 id 목록만 캐시하고, 엔티티는 Member 2차 캐시에서 가져온다.
+    * -> Member 테이블이 변경되면(저장/수정/삭제, 벌크 연산) 해당 쿼리 캐시는 자동으로 무효화된다.
+    * */
     // 옵셔녈 단 건 -> 데이터가 있을수도 있고, 없을수도 있으면 Optional을 쓰는게 맞다.
+    @QueryHints(value = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Member> findOptionalMemberByUsername(String username);
 
     // 단 건
+    @QueryHints(value = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Member findMemberByUsername(String username);
 
+    /*
+    * < username 앞부분 검색 >
+    * like 'prefix%'는 (username, member_id) 인덱스의 범위 검색으로 실행된다. ('%keyword%'는 인덱스를 사용할 수 없다.)
+    * -> StartingWith는 prefix의 %, _ 를 이스케이프하므로, 사용자 입력을 그대로 넘겨도 된다.
+    * -> count 쿼리가 필요 없는 자동 완성 용도이므로 List로 반환한다. (Pageable의 size만큼 조회)
+    * */
+    List<Member> findByUsernameStartingWith(String prefix, Pageable pageable);
+
+    /*
+    * < 대소문자 무시 검색 >
+    * IgnoreCase(upper(username) = upper(?))는 인덱스를 사용할 수 없으므로, 소문자로 저장한 normalizedUsername으로 조회한다.
+    * */
+    default List<Member> findByUsernameIgnoringCase(String username) {
+        return findByNormalizedUsername(Member.normalizeUsername(username));
+    }
+
+    default List<Member> findByUsernameStartingWithIgnoringCase(String prefix, Pageable pageable) {
+        return findByNormalizedUsernameStartingWith(Member.normalizeUsername(prefix), pageable);
+    }
+
+    List<Member> findByNormalizedUsername(String normalizedUsername);
+
+    List<Member> findByNormalizedUsernameStartingWith(String normalizedPrefix, Pageable pageable);
+
     /*
     * < 페이징 처리 >
     *
@@ -113,9 +147,12 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     *
     * clearAutomatically = true
     * -> 영속성 컨텍스트를 clear 해주는 옵션
+    *
+    * 벌크 연산은 @Version을 올려주지 않으므로 직접 올린다. (그래야 동시에 엔티티로 수정한 쪽이 충돌을 알 수 있다.)
+    * lastModifiedDate도 Auditing이 동작하지 않으므로 직접 변경한다. (Last-Modified 헤더가 이 값을 사용한다.)
     * */
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1, m.lastModifiedDate = current_timestamp where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     @Query("select m from Member m left join fetch m.team")
@@ -157,12 +194,45 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
 
     /*
     * select for update
+    * -> 같은 회원을 동시에 수정하면 lock을 기다려야 한다.
+    *    충돌이 드물다면 @Version(낙관적 락) + 재시도(MemberService, OptimisticLockRetryExecutor)를 사용하자.
     * */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
 
     <T> List<T> findProjectionsByUsername(@Param("username") String username, Class<T> type);
+
+    /*
+    * < Stream 조회 >
+    *
+    * getResultList()는 결과 전체를 메모리에 올리기 때문에, 전체 데이터를 내보내는 작업에서는 OutOfMemoryError가 발생할 수 있다.
+    * Stream으로 반환하면 JDBC ResultSet을 fetchSize 단위로 읽으면서 처리한다.
+    *
+    * 주의)
+    * 1. 트랜잭션 안에서 사용해야 하고, 다 사용하면 꼭 close 해야한다. (try-with-resources)
+    * 2. 읽은 엔티티는 영속성 컨텍스트에 계속 쌓이므로, 건수가 많으면 entityManager.detach()/clear()를 해줘야 한다.
+    *    -> fetchSize를 직접 지정하거나, 주기적으로 detach 하려면 scrollAll()을 사용하자.
+    * */
+    @QueryHints(value = @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m from Member m")
+    Stream<Member> streamAll();
+
+    @QueryHints(value = @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m.username from Member m")
+    Stream<String> streamUsernames();
+
+    @QueryHints(value = @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m from Member m left join fetch m.team")
+    Stream<Member> streamMembersFetchJoin();
+
+    /*
+    * < 조건부 요청(If-None-Match, If-Modified-Since) 확인 >
+    * 엔티티를 조회(hydration)하지 않고 version, lastModifiedDate만 조회해서, 변경이 없으면 304로 바로 응답한다.
+    * */
+    @Query("select m.version as version, m.lastModifiedDate as lastModifiedDate from Member m where m.id = :id")
+    Optional<MemberVersion> findVersionById(@Param("id") Long id);
+
     /*
     * 그렇다면 동적 쿼리는 어떻게 해야할까? -> 그냥 동적 쿼리를 편하게 작성할 수 있는 Querydsl을 쓰자!
     * */
@@ -1,10 +1,34 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.bulk.ChunkedBulkUpdate;
+import study.datajpa.repository.bulk.ChunkedBulkUpdater;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.count.CountStrategies;
+import study.datajpa.repository.count.CountStrategy;
+import study.datajpa.repository.count.ParallelPageExecutor;
+import study.datajpa.repository.fetch.BatchFetchSupport;
+import study.datajpa.repository.projection.ProjectionExecutor;
 
 import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /*
 * 규칙) XXXXImpl -> 구현 Repository에는 마지막에 RepositoryImpl을 붙여야한다.
@@ -13,10 +37,217 @@ import java.util.List;
 public class MemberRepositoryImpl implements MemberCustomRepository {
 
     private final EntityManager entityManager;
+    private final CountStrategies countStrategies;
+    private final ParallelPageExecutor parallelPageExecutor;
+    private final ChunkedBulkUpdater chunkedBulkUpdater;
+    private final ProjectionExecutor projectionExecutor;
 
     @Override
     public List<Member> findMemberCustom() {
         return entityManager.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
+
+    /*
+     * < Keyset(Seek) 페이징 >
+     *
+     * offset 방식은 앞의 row를 모두 읽고 버리기 때문에 뒤쪽 페이지로 갈수록 느려진다.
+     * 마지막으로 읽은 (username, member_id) 이후부터 조회하면, 몇 번째 페이지든 같은 비용이 든다.
+     * -> member_id를 같이 정렬 조건에 넣어서 username이 같은 회원이 있어도 순서가 고정되도록 한다.
+     * -> size + 1개를 조회해서 다음 페이지가 있는지 판단한다. (Slice와 같은 방식)
+     *
+     * 참고) username이 null인 회원은 비교 연산이 불가능하므로 조회 대상에서 제외된다.
+     * */
+    @Override
+    public KeysetWindow<Member> findWindowByUsername(String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size는 1 이상이어야 합니다.");
+        }
+
+        TypedQuery<Member> query;
+
+        if (cursor == null) {
+            query = entityManager.createQuery(
+                    "select m from Member m" +
+                            " where m.username is not null" +
+                            " order by m.username asc, m.id asc", Member.class);
+        } else {
+            MemberCursor memberCursor = MemberCursor.decode(cursor);
+            query = entityManager.createQuery(
+                    "select m from Member m" +
+                            " where m.username > :username" +
+                            " or (m.username = :username and m.id > :memberId)" +
+                            " order by m.username asc, m.id asc", Member.class)
+                    .setParameter("username", memberCursor.getUsername())
+                    .setParameter("memberId", memberCursor.getMemberId());
+        }
+
+        List<Member> members = query
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        if (members.size() <= size) {
+            return new KeysetWindow<>(members, null);
+        }
+
+        List<Member> content = members.subList(0, size);
+        return new KeysetWindow<>(content, MemberCursor.of(content.get(size - 1)).encode());
+    }
+
+    /*
+     * PageableExecutionUtils는 첫 페이지의 컨텐츠가 size보다 작거나, 마지막 페이지인 경우 count 쿼리를 아예 실행하지 않는다.
+     * 그 외의 경우에만 CountMode로 고른 전략을 통해 count를 구한다.
+     * -> CountMode.PARALLEL 이면 count 쿼리를 컨텐츠 쿼리와 동시에 실행한다.
+     * */
+    @Override
+    public Page<Member> findPageByAge(int age, Pageable pageable, CountMode countMode) {
+        Supplier<List<Member>> contentQuery = () -> entityManager.createQuery(
+                QueryUtils.applySorting("select m from Member m left join fetch m.team t where m.age = :age", pageable.getSort(), "m"),
+                Member.class)
+                .setParameter("age", age)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        LongSupplier countQuery = () -> entityManager.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                .setParameter("age", age)
+                .getSingleResult();
+
+        return getPage(pageable, countMode, "findPageByAge:" + age, true, contentQuery, countQuery);
+    }
+
+    @Override
+    public Page<Member> findAll(Pageable pageable, CountMode countMode) {
+        Supplier<List<Member>> contentQuery = () -> entityManager.createQuery(
+                QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        LongSupplier countQuery = () -> entityManager.createQuery("select count(m) from Member m", Long.class)
+                .getSingleResult();
+
+        return getPage(pageable, countMode, "findAll", false, contentQuery, countQuery);
+    }
+
+    private Page<Member> getPage(Pageable pageable, CountMode countMode, String countKey, boolean filtered,
+                                 Supplier<List<Member>> contentQuery, LongSupplier countQuery) {
+        if (countMode == CountMode.PARALLEL) {
+            return parallelPageExecutor.getPage(pageable, contentQuery, countQuery);
+        }
+
+        CountStrategy countStrategy = countStrategies.get(countMode, filtered);
+        return PageableExecutionUtils.getPage(contentQuery.get(), pageable,
+                () -> countStrategy.count(Member.class, countKey, countQuery));
+    }
+
+    @Override
+    public Page<Member> findPageWithTeam(Pageable pageable, int batchSize) {
+        List<Member> members = entityManager.createQuery(
+                QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // 프록시의 id는 프록시를 초기화하지 않고 꺼낼 수 있다.
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> teamIds = members.stream()
+                .map(Member::getTeam)
+                .filter(Objects::nonNull)
+                .map(persistenceUnitUtil::getIdentifier)
+                .collect(Collectors.toList());
+
+        // 조회한 팀은 영속성 컨텍스트에 올라가므로, 회원의 팀 프록시는 SQL 없이 초기화된다.
+        for (List<Object> chunk : BatchFetchSupport.paddedChunks(teamIds, batchSize)) {
+            entityManager.createQuery("select t from Team t where t.id in :ids", Team.class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+        }
+
+        return PageableExecutionUtils.getPage(members, pageable,
+                () -> entityManager.createQuery("select count(m) from Member m", Long.class)
+                        .getSingleResult());
+    }
+
+    /*
+     * < 대량 저장 >
+     *
+     * saveAll()은 모든 엔티티가 영속성 컨텍스트에 남아있기 때문에, 건수가 많아지면 메모리와 flush 시 변경 감지 비용이 계속 늘어난다.
+     * batchSize 마다 flush(JDBC batch INSERT) 후 clear 해서 영속성 컨텍스트를 비운다.
+     * -> hibernate.jdbc.batch_size와 같은 값을 사용하는 것이 좋다.
+     *
+     * 주의) clear 하기 때문에 같은 트랜잭션에서 이전에 조회한 엔티티도 모두 준영속 상태가 된다.
+     * */
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다.");
+        }
+
+        int count = 0;
+        for (Member member : members) {
+            entityManager.persist(member);
+
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+
+    /*
+     * < ScrollableResults를 사용한 전체 조회 >
+     *
+     * FORWARD_ONLY 커서로 fetchSize 만큼씩 읽어오기 때문에 결과 전체가 메모리에 올라가지 않는다.
+     * 읽기 전용으로 조회해서 스냅샷을 만들지 않고, detachInterval 마다 clear 해서 영속성 컨텍스트도 일정한 크기로 유지한다.
+     *
+     * 주의) clear 하기 때문에 같은 트랜잭션에서 이전에 조회한 엔티티도 모두 준영속 상태가 된다.
+     * */
+    @Override
+    @Transactional(readOnly = true)
+    public long scrollAll(int fetchSize, int detachInterval, Consumer<Member> consumer) {
+        if (fetchSize < 1 || detachInterval < 1) {
+            throw new IllegalArgumentException("fetchSize, detachInterval은 1 이상이어야 합니다.");
+        }
+
+        long count = 0;
+        try (ScrollableResults results = entityManager.createQuery("select m from Member m", Member.class)
+                .unwrap(org.hibernate.query.Query.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            while (results.next()) {
+                consumer.accept((Member) results.get(0));
+
+                if (++count % detachInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long bulkAgePlusInChunks(int age, int chunkSize, int parallelism) {
+        return chunkedBulkUpdater.execute(
+                ChunkedBulkUpdate.of(Member.class, "age = age + 1, version = version + 1, last_modified_date = current_timestamp", "age >= :age")
+                        .parameter("age", age)
+                        .chunkSize(chunkSize)
+                        .parallelism(parallelism));
+    }
+
+    @Override
+    public <T> List<T> findProjectedByUsername(String username, Class<T> type) {
+        return projectionExecutor.find(Member.class, type, "e.username = :username",
+                Collections.singletonMap("username", username));
+    }
+
+    @Override
+    public <T> List<T> findAllProjected(Class<T> type) {
+        return projectionExecutor.find(Member.class, type, null, Collections.emptyMap());
+    }
 }
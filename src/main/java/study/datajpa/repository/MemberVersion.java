@@ -0,0 +1,12 @@
+package study.datajpa.repository;
+
+import java.time.LocalDateTime;
+
+/*
+ * ETag(version), Last-Modified(lastModifiedDate) 확인용 - 엔티티를 조회하지 않고 두 컬럼만 조회한다.
+ * */
+public interface MemberVersion {
+    Long getVersion();
+
+    LocalDateTime getLastModifiedDate();
+}
@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.Team;
+
+public interface TeamCustomRepository {
+
+    /*
+     * 팀을 페이징한 후, 조회한 팀들의 members를 batchSize 단위의 IN 절로 함께 초기화한다.
+     * -> 컬렉션 fetch join과 다르게 페이징을 DB에서 하고, N+1 대신 (팀 조회 + count + 팀 수 / batchSize) 번만 조회한다.
+     * */
+    Page<Team> findPageWithMembers(Pageable pageable, int batchSize);
+}
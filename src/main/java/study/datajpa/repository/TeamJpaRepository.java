@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.readonly.ReadOnlyRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -9,6 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@ReadOnlyRepository
 public class TeamJpaRepository {
 
     @PersistenceContext
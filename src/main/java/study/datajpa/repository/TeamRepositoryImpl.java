@@ -0,0 +1,43 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.fetch.BatchFetchSupport;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamCustomRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Team> findPageWithMembers(Pageable pageable, int batchSize) {
+        List<Team> teams = entityManager.createQuery(
+                QueryUtils.applySorting("select t from Team t", pageable.getSort(), "t"), Team.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Long> teamIds = teams.stream()
+                .map(Team::getId)
+                .collect(Collectors.toList());
+
+        // 같은 영속성 컨텍스트에 있는 팀들의 members 컬렉션이 fetch join 결과로 초기화된다.
+        for (List<Long> chunk : BatchFetchSupport.paddedChunks(teamIds, batchSize)) {
+            entityManager.createQuery("select distinct t from Team t left join fetch t.members where t.id in :ids", Team.class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+        }
+
+        return PageableExecutionUtils.getPage(teams, pageable,
+                () -> entityManager.createQuery("select count(t) from Team t", Long.class)
+                        .getSingleResult());
+    }
+}
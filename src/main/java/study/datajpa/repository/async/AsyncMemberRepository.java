@@ -0,0 +1,77 @@
+package study.datajpa.repository.async;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.repository.MemberQueryRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.count.CountMode;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/*
+ * < 비동기 Repository >
+ *
+ * Repository 호출을 RepositoryExecutor에서 실행하고 CompletableFuture로 반환한다.
+ * -> 호출한 스레드(ex. 서블릿 스레드)는 쿼리가 끝날 때까지 기다리지 않는다.
+ *
+ * 주의)
+ * 1. 다른 스레드에서 실행되므로 호출한 쪽의 트랜잭션, 영속성 컨텍스트에 참여하지 않는다.
+ * 2. 엔티티는 트랜잭션 밖으로 나가면 지연 로딩을 할 수 없으므로, 읽기 전용 트랜잭션 안에서 DTO로 변환해서 반환한다.
+ * */
+@Component
+public class AsyncMemberRepository {
+
+    private final MemberRepository memberRepository;
+    private final MemberQueryRepository memberQueryRepository;
+    private final TeamRepository teamRepository;
+    private final RepositoryExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AsyncMemberRepository(MemberRepository memberRepository, MemberQueryRepository memberQueryRepository,
+                                 TeamRepository teamRepository, RepositoryExecutor executor,
+                                 PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.memberQueryRepository = memberQueryRepository;
+        this.teamRepository = teamRepository;
+        this.executor = executor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public CompletableFuture<Optional<MemberDto>> findById(Long id) {
+        return supply(() -> memberRepository.findById(id)
+                .map(member -> new MemberDto(member.getId(), member.getUsername(),
+                        member.getTeam() == null ? null : member.getTeam().getName())));
+    }
+
+    public CompletableFuture<Page<MemberDto>> findAll(Pageable pageable, CountMode countMode) {
+        return supply(() -> memberRepository.findAll(pageable, countMode)
+                .map(MemberDto::new));
+    }
+
+    public CompletableFuture<Page<MemberDto>> search(MemberSearchCondition condition, Pageable pageable) {
+        return supply(() -> memberQueryRepository.search(condition, pageable)
+                .map(member -> new MemberDto(member.getId(), member.getUsername(),
+                        condition.isFetchTeam() && member.getTeam() != null ? member.getTeam().getName() : null)));
+    }
+
+    public CompletableFuture<Long> countTeams() {
+        return supply(teamRepository::count);
+    }
+
+    /*
+     * 위에 없는 Repository 호출도 같은 Executor, 읽기 전용 트랜잭션에서 실행할 수 있다.
+     * -> supplier는 엔티티가 아닌 DTO(값)를 반환해야 한다.
+     * */
+    public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        return executor.supplyAsync(() -> readOnlyTransaction.execute(status -> supplier.get()));
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.repository.async;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(AsyncRepositoryProperties.class)
+public class AsyncRepositoryConfig {
+
+    // HikariCP의 기본 maximumPoolSize
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public RepositoryExecutor repositoryExecutor(AsyncRepositoryProperties properties, Environment environment) {
+        int concurrency = properties.getConcurrency() != null
+                ? properties.getConcurrency()
+                : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, DEFAULT_POOL_SIZE);
+
+        return new RepositoryExecutor(concurrency, properties.getQueueCapacity(), properties.isVirtualThreads());
+    }
+}
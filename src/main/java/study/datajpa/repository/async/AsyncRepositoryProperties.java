@@ -0,0 +1,20 @@
+package study.datajpa.repository.async;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.async")
+public class AsyncRepositoryProperties {
+
+    // 동시에 실행할 Repository 호출 수 (지정하지 않으면 커넥션 풀 크기)
+    private Integer concurrency;
+
+    // 실행을 기다릴 수 있는 호출 수 (넘으면 503)
+    private int queueCapacity = 100;
+
+    // JDK 21 이상이면 가상 스레드(Virtual Thread)에서 실행한다.
+    private boolean virtualThreads = true;
+}
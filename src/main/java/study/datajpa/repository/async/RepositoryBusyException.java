@@ -0,0 +1,17 @@
+package study.datajpa.repository.async;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*
+ * 실행 대기열이 가득 차면 요청을 기다리게 하지 않고 바로 거절한다.
+ * */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RepositoryBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RepositoryBusyException(int concurrency, int queueCapacity) {
+        super("Repository 실행 대기열이 가득 찼습니다. concurrency: " + concurrency + ", queueCapacity: " + queueCapacity);
+    }
+}
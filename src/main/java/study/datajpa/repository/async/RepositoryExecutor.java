@@ -0,0 +1,136 @@
+package study.datajpa.repository.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import study.datajpa.monitoring.QueryCounter;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/*
+ * < Repository 호출 전용 Executor >
+ *
+ * JDBC 호출은 커넥션을 얻을 때까지, 쿼리가 끝날 때까지 스레드를 블로킹한다.
+ * -> 동시에 실행되는 호출 수를 커넥션 풀 크기(concurrency)로 제한하고, 나머지는 queueCapacity 만큼만 기다리게 한다.
+ *    (커넥션 풀보다 많이 실행해봐야 connectionTimeout 까지 커넥션을 기다릴 뿐이다.)
+ *
+ * 1. 가상 스레드: 호출마다 가상 스레드를 만들고, Semaphore로 동시 실행 수를 제한한다. (기다리는 동안 OS 스레드를 점유하지 않는다.)
+ *    -> Executors.newVirtualThreadPerTaskExecutor()는 JDK 21부터 있으므로, 리플렉션으로 호출한다. (소스는 Java 11로 컴파일)
+ * 2. 플랫폼 스레드: concurrency 크기의 고정 스레드 풀 + 크기가 queueCapacity인 대기열
+ *
+ * 주의) java.util.concurrent.Executor를 구현하지 않는다.
+ * -> Executor 타입의 Bean이 있으면 Spring Boot가 applicationTaskExecutor(MVC 비동기 처리, @Async)를 만들지 않는다.
+ * */
+@Slf4j
+public class RepositoryExecutor implements DisposableBean {
+
+    private final int concurrency;
+    private final int queueCapacity;
+    private final ExecutorService delegate;
+    private final Semaphore admission;
+    private final Semaphore running;
+    private final ThreadLocal<Boolean> worker = ThreadLocal.withInitial(() -> false);
+
+    public RepositoryExecutor(int concurrency, int queueCapacity, boolean useVirtualThreads) {
+        this.concurrency = concurrency;
+        this.queueCapacity = queueCapacity;
+
+        ExecutorService virtualThreadExecutor = useVirtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            this.delegate = virtualThreadExecutor;
+            this.admission = new Semaphore(concurrency + queueCapacity);
+            this.running = new Semaphore(concurrency);
+        } else {
+            this.delegate = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                    queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                    new CustomizableThreadFactory("repository-async-"));
+            this.admission = null;
+            this.running = null;
+        }
+        log.info("Repository Executor: {}, concurrency: {}, queueCapacity: {}",
+                isVirtual() ? "virtual threads" : "platform threads", concurrency, queueCapacity);
+    }
+
+    /*
+     * supplier를 이 Executor에서 실행한다. (대기열이 가득 차면 RepositoryBusyException)
+     * */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, this::execute);
+    }
+
+    /*
+     * 작업을 등록한 스레드의 SQL 실행 횟수(QueryCounter)에 집계되도록 감싼다.
+     * */
+    public void execute(Runnable task) {
+        Runnable propagated = QueryCounter.propagate(task);
+        Runnable command = () -> {
+            worker.set(true);
+            try {
+                propagated.run();
+            } finally {
+                worker.remove();
+            }
+        };
+
+        if (!isVirtual()) {
+            try {
+                delegate.execute(command);
+            } catch (RejectedExecutionException e) {
+                throw new RepositoryBusyException(concurrency, queueCapacity);
+            }
+            return;
+        }
+
+        if (!admission.tryAcquire()) {
+            throw new RepositoryBusyException(concurrency, queueCapacity);
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    running.acquire();
+                    try {
+                        command.run();
+                    } finally {
+                        running.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            throw new RepositoryBusyException(concurrency, queueCapacity);
+        }
+    }
+
+    /*
+     * 현재 스레드가 이 Executor에서 실행 중인 작업인지 확인한다.
+     * -> 작업 안에서 같은 Executor에 작업을 추가하고 기다리면, 스레드가 모두 기다리는 상태가 되어 교착 상태에 빠질 수 있다.
+     * */
+    public boolean isCurrentThreadWorker() {
+        return worker.get();
+    }
+
+    public boolean isVirtual() {
+        return admission != null;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        delegate.shutdown();
+        if (!delegate.awaitTermination(30, TimeUnit.SECONDS)) {
+            delegate.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
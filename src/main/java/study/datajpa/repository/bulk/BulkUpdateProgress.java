@@ -0,0 +1,15 @@
+package study.datajpa.repository.bulk;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BulkUpdateProgress {
+
+    private final long completedChunks;
+    private final long totalChunks;
+    private final long updatedRows;
+}
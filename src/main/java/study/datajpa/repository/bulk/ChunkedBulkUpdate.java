@@ -0,0 +1,71 @@
+package study.datajpa.repository.bulk;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/*
+ * < 청크 단위 벌크 UPDATE 정의 >
+ *
+ * setClause, whereClause는 native SQL 조각이다. (컬럼명을 사용한다.)
+ * ex) ChunkedBulkUpdate.of(Member.class, "age = age + 1", "age >= :age")
+ *             .parameter("age", 20)
+ *             .chunkSize(1000)
+ *             .parallelism(2)
+ * */
+@Getter
+public class ChunkedBulkUpdate {
+
+    private final Class<?> entityClass;
+    private final String setClause;
+    private final String whereClause;
+    private final Map<String, Object> parameters = new HashMap<>();
+    private int chunkSize = 1000;
+    private int parallelism = 1;
+    private Consumer<BulkUpdateProgress> progressListener = progress -> { };
+
+    private ChunkedBulkUpdate(Class<?> entityClass, String setClause, String whereClause) {
+        this.entityClass = entityClass;
+        this.setClause = setClause;
+        this.whereClause = whereClause;
+    }
+
+    public static ChunkedBulkUpdate of(Class<?> entityClass, String setClause, String whereClause) {
+        return new ChunkedBulkUpdate(entityClass, setClause, whereClause);
+    }
+
+    public ChunkedBulkUpdate parameter(String name, Object value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    // id 범위 하나의 크기 (= 한 트랜잭션에서 UPDATE 하는 최대 row 수)
+    public ChunkedBulkUpdate chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다.");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    // 동시에 실행할 청크 수 (커넥션 풀 크기보다 작아야 한다. ChunkedBulkUpdater.MAX_PARALLELISM 보다 크면 그 값으로 제한된다.)
+    public ChunkedBulkUpdate parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism은 1 이상이어야 합니다.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public ChunkedBulkUpdate progressListener(Consumer<BulkUpdateProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public Map<String, Object> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+}
@@ -0,0 +1,254 @@
+package study.datajpa.repository.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.monitoring.QueryCounter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/*
+ * < id 범위 기반 청크 벌크 UPDATE >
+ *
+ * bulkAgePlus처럼 UPDATE 한 번으로 테이블 전체를 변경하면
+ * 1. 모든 row의 lock을 트랜잭션이 끝날 때까지 잡고 있고,
+ * 2. clearAutomatically = true로 영속성 컨텍스트 전체를 비워야 하고,
+ * 3. Hibernate가 해당 엔티티의 2차 캐시 region 전체를 비운다.
+ *
+ * id 범위(chunkSize)마다 별도의 트랜잭션(REQUIRES_NEW)으로 UPDATE 후 커밋해서 lock을 짧게 잡고,
+ * 변경된 id의 엔티티만 2차 캐시와 호출한 쪽의 영속성 컨텍스트에서 제거한다.
+ * -> JPQL 벌크 연산은 항상 region 전체를 비우기 때문에 native SQL로 실행하고,
+ *    어떤 엔티티와도 관계없는 query space를 지정해서 Hibernate가 region을 비우지 않도록 한다.
+ *    대신 쿼리 캐시는 어떤 결과가 바뀌었는지 알 수 없으므로 직접 비운다.
+ *
+ * 주의)
+ * 1. 청크마다 커밋하므로, 중간에 실패하면 이전 청크의 변경은 rollback 되지 않는다. (다시 실행해도 되는 UPDATE로 작성하자)
+ * 2. 호출한 쪽의 트랜잭션과 다른 트랜잭션에서 실행되므로, 호출한 쪽에서 아직 커밋하지 않은 데이터는 보이지 않는다.
+ * 3. id는 숫자 타입이어야 한다.
+ * 4. 읽기/쓰기 트랜잭션 안에서는 호출할 수 없다. (IllegalStateException)
+ *    -> flush 하지 않은 변경은 청크 트랜잭션에 보이지 않고, 변경된 엔티티를 영속성 컨텍스트에서 제거하면 그 변경도 사라진다.
+ *    -> flush 했다면 호출한 쪽 트랜잭션이 row lock을 잡고 있어서, 같은 row를 UPDATE 하는 청크 트랜잭션이 커밋을 기다리다 deadlock 에 빠진다.
+ *    읽기 전용 트랜잭션 안에서 호출하면, 변경된 엔티티를 그 영속성 컨텍스트에서 제거해서 다음 조회 때 DB에서 다시 읽도록 한다.
+ * */
+@Slf4j
+@Component
+public class ChunkedBulkUpdater implements DisposableBean {
+
+    private static final String CHUNKED_UPDATE_QUERY_SPACE = "chunked_bulk_update";
+
+    // 동시에 실행할 수 있는 최대 청크 수 (ChunkedBulkUpdate.parallelism이 더 커도 이 값으로 제한된다.)
+    static final int MAX_PARALLELISM = 4;
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate chunkTransaction;
+
+    /*
+     * 모든 청크 벌크 UPDATE가 함께 사용하는 스레드 풀
+     * -> 호출할 때마다 스레드 풀을 만들지 않고, 동시에 실행되는 청크 수도 MAX_PARALLELISM 으로 제한한다. (커넥션 풀 보호)
+     * */
+    private final ExecutorService executor;
+
+    public ChunkedBulkUpdater(EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+                              PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(MAX_PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "chunked-bulk-update-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public long execute(ChunkedBulkUpdate update) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new IllegalStateException("읽기/쓰기 트랜잭션 밖에서 호출해야 합니다. entity: " + update.getEntityClass().getName());
+        }
+
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(update.getEntityClass());
+        String table = persister.getTableName();
+        String idColumn = persister.getIdentifierColumnNames()[0];
+
+        long[] idRange = chunkTransaction.execute(status -> findIdRange(update, table, idColumn));
+        if (idRange == null) {
+            return 0;
+        }
+
+        long minId = idRange[0];
+        long maxId = idRange[1];
+        long totalChunks = (maxId - minId) / update.getChunkSize() + 1;
+
+        // 호출한 쪽의 (읽기 전용) 영속성 컨텍스트가 있을 때만 변경된 id를 모아둔다.
+        boolean callerHasPersistenceContext = TransactionSynchronizationManager.isActualTransactionActive();
+        List<Long> updatedIds = Collections.synchronizedList(new ArrayList<>());
+
+        AtomicLong completedChunks = new AtomicLong();
+        AtomicLong updatedRows = new AtomicLong();
+
+        // 청크를 순서대로 가져가서 실행하는 worker를 parallelism 만큼 공유 스레드 풀에서 실행한다.
+        int workers = (int) Math.min(Math.min(update.getParallelism(), MAX_PARALLELISM), totalChunks);
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(CompletableFuture.runAsync(QueryCounter.propagate(() -> {
+                    long chunk;
+                    while (!failed.get() && (chunk = nextChunk.getAndIncrement()) < totalChunks) {
+                        long from = minId + chunk * update.getChunkSize();
+                        long to = Math.min(from + update.getChunkSize() - 1, maxId);
+                        try {
+                            int rows = chunkTransaction.execute(status -> updateChunk(update, table, idColumn, from, to, ids -> {
+                                if (callerHasPersistenceContext) {
+                                    updatedIds.addAll(ids);
+                                }
+                            }));
+
+                            BulkUpdateProgress progress = new BulkUpdateProgress(
+                                    completedChunks.incrementAndGet(), totalChunks, updatedRows.addAndGet(rows));
+                            update.getProgressListener().accept(progress);
+                        } catch (RuntimeException | Error e) {
+                            // 다른 worker도 남은 청크를 더 실행하지 않는다.
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                }), executor));
+            }
+
+            futures.forEach(CompletableFuture::join);
+        } catch (CompletionException e) {
+            log.warn("청크 벌크 UPDATE가 실패했습니다. 커밋된 청크: {}/{}, 변경된 row: {}",
+                    completedChunks.get(), totalChunks, updatedRows.get());
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        } finally {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+
+        if (callerHasPersistenceContext) {
+            detachFromCurrentPersistenceContext(update.getEntityClass(), updatedIds);
+        }
+        return updatedRows.get();
+    }
+
+    private long[] findIdRange(ChunkedBulkUpdate update, String table, String idColumn) {
+        Query query = entityManager.createNativeQuery(
+                "select min(" + idColumn + "), max(" + idColumn + ") from " + table +
+                        " where " + update.getWhereClause());
+        update.getParameters().forEach(query::setParameter);
+
+        Object[] range = (Object[]) query.getSingleResult();
+        if (range[0] == null) {
+            return null;
+        }
+        return new long[]{ ((Number) range[0]).longValue(), ((Number) range[1]).longValue() };
+    }
+
+    /*
+     * 변경할 id를 먼저 조회하고, 그 id만 UPDATE 한다.
+     * -> 어떤 엔티티가 변경되었는지 정확히 알아야 2차 캐시에서 해당 엔티티만 제거할 수 있다.
+     * -> 조회와 UPDATE 사이에 다른 트랜잭션이 row를 변경할 수 있으므로, 변경된 row 수는 executeUpdate()의 결과를 반환한다.
+     * */
+    @SuppressWarnings("unchecked")
+    private int updateChunk(ChunkedBulkUpdate update, String table, String idColumn, long from, long to,
+                            Consumer<List<Long>> updatedIdsConsumer) {
+        Query idQuery = entityManager.createNativeQuery(
+                "select " + idColumn + " from " + table +
+                        " where (" + update.getWhereClause() + ")" +
+                        " and " + idColumn + " between :chunkFromId and :chunkToId");
+        update.getParameters().forEach(idQuery::setParameter);
+        List<Long> ids = ((List<Number>) idQuery
+                .setParameter("chunkFromId", from)
+                .setParameter("chunkToId", to)
+                .getResultList())
+                .stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Query updateQuery = entityManager.createNativeQuery(
+                "update " + table + " set " + update.getSetClause() +
+                        " where (" + update.getWhereClause() + ")" +
+                        " and " + idColumn + " in (:chunkIds)");
+        updateQuery.unwrap(NativeQuery.class).addSynchronizedQuerySpace(CHUNKED_UPDATE_QUERY_SPACE);
+        update.getParameters().forEach(updateQuery::setParameter);
+
+        /*
+         * 2차 캐시에서는 UPDATE 전과 커밋 후에 두 번 제거한다.
+         * -> UPDATE 전에만 제거하면, 커밋 전에 다른 트랜잭션이 변경 전 row를 다시 조회해서 캐시에 올릴 수 있다. (TTL까지 남는다.)
+         * -> 커밋 후에 한 번 더 제거하면, 그 사이에 올라간 변경 전 데이터도 제거된다.
+         * */
+        evict(update.getEntityClass(), ids);
+        int updatedRows = updateQuery.setParameter("chunkIds", ids)
+                .executeUpdate();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(update.getEntityClass(), ids);
+            }
+        });
+        updatedIdsConsumer.accept(ids);
+        return updatedRows;
+    }
+
+    private void evict(Class<?> entityClass, List<Long> ids) {
+        for (Long id : ids) {
+            entityManagerFactory.getCache().evict(entityClass, id);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private void detachFromCurrentPersistenceContext(Class<?> entityClass, List<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(entityClass);
+
+        for (Long id : ids) {
+            EntityKey entityKey = session.generateEntityKey(id, persister);
+            Object entity = session.getPersistenceContext().getEntity(entityKey);
+            if (entity != null) {
+                session.evict(entity);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package study.datajpa.repository.count;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/*
+ * < TTL 기반 count 캐시 >
+ *
+ * TTL이 지나거나, 해당 엔티티에 저장/삭제/벌크 연산이 일어나면(CountCacheInvalidationAspect) 다시 count 쿼리를 실행한다.
+ * 주의) 다른 애플리케이션 인스턴스의 변경은 알 수 없으므로, TTL 만큼은 오차가 생길 수 있다.
+ *
+ * 조건마다(ex. findPageByAge:10, findPageByAge:11...) 캐시되므로, 최대 maxSize 개까지만 저장한다. (LRU)
+ *
+ * < 트랜잭션 안에서 변경된 경우 >
+ * -> 캐시는 커밋된 후에 무효화한다. 커밋 전에 무효화하면, 다른 스레드가 커밋 전의 count를 다시 캐시할 수 있다. (롤백되면 무효화하지 않는다.)
+ * -> 그 동안 같은 트랜잭션에서는 자신의 변경이 반영된 count가 필요하므로, 캐시를 사용하지 않고 count 쿼리를 실행한다.
+ * */
+@Component
+public class CachedCountStrategy implements CountStrategy {
+
+    private static final Object CHANGED_ENTITIES_KEY = new Object();
+
+    private final Map<String, CachedCount> cache;
+    private final long ttlNanos;
+
+    public CachedCountStrategy(@Value("${datajpa.count.cache-ttl:30s}") Duration ttl,
+                               @Value("${datajpa.count.cache-max-size:1000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<String, CachedCount>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public long count(Class<?> entityClass, String key, LongSupplier exactCount) {
+        if (changedInCurrentTransaction(entityClass)) {
+            return exactCount.getAsLong();
+        }
+
+        String cacheKey = entityClass.getName() + ":" + key;
+        long now = System.nanoTime();
+
+        CachedCount cached;
+        synchronized (cache) {
+            cached = cache.get(cacheKey);
+        }
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            return cached.count;
+        }
+
+        long count = exactCount.getAsLong();
+        synchronized (cache) {
+            cache.put(cacheKey, new CachedCount(count, now));
+        }
+        return count;
+    }
+
+    /*
+     * 트랜잭션 안이면 커밋된 후에 무효화한다.
+     * */
+    public void invalidate(Class<?> entityClass) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(entityClass);
+            return;
+        }
+        changedEntities().add(entityClass);
+    }
+
+    boolean isCached(Class<?> entityClass, String key) {
+        synchronized (cache) {
+            return cache.containsKey(entityClass.getName() + ":" + key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private void evict(Class<?> entityClass) {
+        String prefix = entityClass.getName() + ":";
+        synchronized (cache) {
+            cache.keySet().removeIf(cacheKey -> cacheKey.startsWith(prefix));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean changedInCurrentTransaction(Class<?> entityClass) {
+        Set<Class<?>> changedEntities = (Set<Class<?>>) TransactionSynchronizationManager.getResource(CHANGED_ENTITIES_KEY);
+        return changedEntities != null && changedEntities.contains(entityClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Class<?>> changedEntities() {
+        Set<Class<?>> changedEntities = (Set<Class<?>>) TransactionSynchronizationManager.getResource(CHANGED_ENTITIES_KEY);
+        if (changedEntities != null) {
+            return changedEntities;
+        }
+
+        Set<Class<?>> newChangedEntities = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(CHANGED_ENTITIES_KEY, newChangedEntities);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                newChangedEntities.forEach(CachedCountStrategy.this::evict);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_ENTITIES_KEY);
+            }
+        });
+        return newChangedEntities;
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long loadedAt;
+
+        private CachedCount(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
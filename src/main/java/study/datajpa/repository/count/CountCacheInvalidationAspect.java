@@ -0,0 +1,32 @@
+package study.datajpa.repository.count;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+/*
+ * Member가 저장/삭제되거나 벌크 연산이 실행되면 캐시된 count를 무효화한다.
+ * -> Team을 삭제하면 cascade로 Member도 삭제되기 때문에 같이 무효화한다.
+ * -> 트랜잭션 안에서 호출되면 커밋된 후에 무효화된다. (CachedCountStrategy.invalidate)
+ * */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CountCacheInvalidationAspect {
+
+    private final CachedCountStrategy cachedCountStrategy;
+
+    @AfterReturning("(target(study.datajpa.repository.MemberRepository) || target(study.datajpa.repository.MemberJpaRepository))" +
+            " && (execution(* save*(..)) || execution(* delete*(..)) || execution(* bulk*(..)))")
+    public void invalidateMemberCount() {
+        cachedCountStrategy.invalidate(Member.class);
+    }
+
+    @AfterReturning("(target(study.datajpa.repository.TeamRepository) || target(study.datajpa.repository.TeamJpaRepository))" +
+            " && execution(* delete*(..))")
+    public void invalidateMemberCountByTeam() {
+        cachedCountStrategy.invalidate(Member.class);
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa.repository.count;
+
+public enum CountMode {
+    // 매번 count 쿼리를 실행한다. (기존 방식)
+    EXACT,
+    // TTL 동안 count 결과를 재사용하고, 저장/삭제/벌크 연산이 일어나면 무효화한다.
+    CACHED,
+    // Database 통계 정보의 추정치를 사용한다. (테이블 전체 row 수이므로, where 조건이 있는 count는 EXACT로 실행된다.)
+    ESTIMATED,
+    // 매번 count 쿼리를 실행하지만, 다른 커넥션에서 컨텐츠 쿼리와 동시에 실행한다. (ParallelPageExecutor)
+    PARALLEL
+}
@@ -0,0 +1,28 @@
+package study.datajpa.repository.count;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CountStrategies {
+
+    private final ExactCountStrategy exactCountStrategy;
+    private final CachedCountStrategy cachedCountStrategy;
+    private final EstimatedCountStrategy estimatedCountStrategy;
+
+    /*
+     * filtered -> count 쿼리에 where 조건이 있는지
+     * -> ESTIMATED는 테이블 전체의 추정치이므로, 조건이 있으면 EXACT로 대체한다.
+     * */
+    public CountStrategy get(CountMode countMode, boolean filtered) {
+        switch (countMode) {
+            case CACHED:
+                return cachedCountStrategy;
+            case ESTIMATED:
+                return filtered ? exactCountStrategy : estimatedCountStrategy;
+            default:
+                return exactCountStrategy;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package study.datajpa.repository.count;
+
+import java.util.function.LongSupplier;
+
+/*
+ * < Page의 count 쿼리 전략 >
+ *
+ * 데이터가 많아지면 count 쿼리가 컨텐츠 조회 쿼리보다 더 비싸지는 경우가 많다.
+ * 메소드마다 정확도와 비용 중 무엇을 선택할지 CountMode로 고를 수 있도록 한다.
+ *
+ * key -> 같은 조건의 count를 구분하기 위한 값 (ex. "findPageByAge:10")
+ * exactCount -> 실제 count 쿼리 (필요할 때만 실행된다.)
+ * */
+public interface CountStrategy {
+    long count(Class<?> entityClass, String key, LongSupplier exactCount);
+}
@@ -0,0 +1,60 @@
+package study.datajpa.repository.count;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/*
+ * < 통계 정보 기반 count 추정 >
+ *
+ * H2의 INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE를 읽는다.
+ * -> MySQL이라면 information_schema.TABLES.TABLE_ROWS, PostgreSQL이라면 pg_class.reltuples가 같은 역할을 한다.
+ *
+ * 주의) 테이블 전체의 추정치이므로 where 조건은 반영되지 않는다.
+ *      "약 N건" 정도만 보여줘도 되는 목록 화면에서만 사용하도록 하자.
+ *
+ * JdbcTemplate을 사용한 이유?
+ * -> 통계 조회가 실패해도 JPA 트랜잭션이 rollback-only로 마킹되지 않게 하기 위해서이다.
+ *    실패하면 정확한 count 쿼리로 대체한다.
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EstimatedCountStrategy implements CountStrategy {
+
+    private static final String ROW_COUNT_ESTIMATE_SQL =
+            "select row_count_estimate from information_schema.tables" +
+                    " where table_schema = schema() and upper(table_name) = upper(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public long count(Class<?> entityClass, String key, LongSupplier exactCount) {
+        try {
+            List<Long> estimates = jdbcTemplate.queryForList(ROW_COUNT_ESTIMATE_SQL, Long.class, tableName(entityClass));
+            if (!estimates.isEmpty() && estimates.get(0) != null) {
+                return estimates.get(0);
+            }
+        } catch (DataAccessException e) {
+            log.warn("count 추정치를 조회하지 못했습니다. 정확한 count 쿼리로 대체합니다. entity={}", entityClass.getSimpleName(), e);
+        }
+        return exactCount.getAsLong();
+    }
+
+    private String tableName(Class<?> entityClass) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(entityClass);
+        return persister.getTableName();
+    }
+}
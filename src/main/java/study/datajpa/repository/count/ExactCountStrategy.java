@@ -0,0 +1,14 @@
+package study.datajpa.repository.count;
+
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+@Component
+public class ExactCountStrategy implements CountStrategy {
+
+    @Override
+    public long count(Class<?> entityClass, String key, LongSupplier exactCount) {
+        return exactCount.getAsLong();
+    }
+}
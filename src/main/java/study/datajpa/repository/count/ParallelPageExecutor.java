@@ -0,0 +1,96 @@
+package study.datajpa.repository.count;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.async.RepositoryBusyException;
+import study.datajpa.repository.async.RepositoryExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/*
+ * < 컨텐츠 쿼리와 count 쿼리를 동시에 실행 >
+ *
+ * count 쿼리를 RepositoryExecutor에서 다른 커넥션으로 먼저 시작하고, 현재 스레드에서는 컨텐츠 쿼리를 실행한다.
+ * -> 응답 시간이 (컨텐츠 + count)에서 max(컨텐츠, count)로 줄어든다.
+ * -> PageableExecutionUtils가 count가 필요 없다고 판단하면(첫 페이지의 컨텐츠가 size보다 작거나, 마지막 페이지)
+ *    count 결과를 기다리지 않는다. 아직 실행되지 않은 count는 실행하지 않고, 이미 실행 중인 count의 결과는 버린다.
+ *    주의) 이미 시작된 count 쿼리는 중단되지 않는다. 끝날 때까지 Executor 스레드와 커넥션을 계속 사용한다.
+ *         (cancelled 플래그는 대기열에 있는 작업만 건너뛴다. 느린 count라면 statement timeout으로 제한하자.)
+ *
+ * 다음의 경우에는 기존처럼 순서대로 실행한다.
+ * 1. 쓰기 트랜잭션 안에서 호출한 경우: 다른 커넥션에서는 아직 커밋되지 않은 변경이 보이지 않는다.
+ * 2. RepositoryExecutor의 작업 안에서 호출한 경우: 같은 Executor의 결과를 기다리면 교착 상태에 빠질 수 있다.
+ * 3. RepositoryExecutor의 대기열이 가득 찬 경우
+ *
+ * 주의) 요청 하나가 커넥션을 두 개 사용한다. 동시 요청 수가 커넥션 풀 크기의 절반만 넘어도 커넥션을 기다리게 되므로,
+ *      기본값이 아니라 필요한 곳에서만 CountMode.PARALLEL로 지정한다.
+ * */
+@Slf4j
+@Component
+public class ParallelPageExecutor {
+
+    private final RepositoryExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ParallelPageExecutor(RepositoryExecutor executor, PlatformTransactionManager transactionManager) {
+        this.executor = executor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <T> Page<T> getPage(Pageable pageable, Supplier<List<T>> contentQuery, LongSupplier countQuery) {
+        if (pageable.isUnpaged() || isInReadWriteTransaction() || executor.isCurrentThreadWorker()) {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<Long> countFuture;
+        try {
+            countFuture = executor.supplyAsync(
+                    () -> cancelled.get() ? null : readOnlyTransaction.execute(status -> countQuery.getAsLong()));
+        } catch (RepositoryBusyException e) {
+            log.debug("count 쿼리를 순서대로 실행합니다. {}", e.getMessage());
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        AtomicBoolean countUsed = new AtomicBoolean();
+        try {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, () -> {
+                countUsed.set(true);
+                return join(countFuture);
+            });
+        } finally {
+            if (!countUsed.get()) {
+                cancelled.set(true);
+                countFuture.cancel(false);
+            }
+        }
+    }
+
+    private static boolean isInReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static long join(CompletableFuture<Long> countFuture) {
+        try {
+            return countFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
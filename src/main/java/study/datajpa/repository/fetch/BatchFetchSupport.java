@@ -0,0 +1,48 @@
+package study.datajpa.repository.fetch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/*
+ * < IN 절 배치 조회 (padded) >
+ *
+ * id를 batchSize 단위로 나누고, 각 묶음의 크기를 2의 거듭제곱(최대 batchSize)으로 맞춘다. (마지막 id를 반복해서 채운다.)
+ * -> IN 절의 파라미터 수가 몇 가지로 고정되기 때문에, 같은 SQL이 반복되고 DB와 Hibernate의 쿼리 플랜을 재사용할 수 있다.
+ *    ex) batchSize = 100, id 37개 -> in (?, ... 64개)
+ *
+ * hibernate.batch_fetch_style: padded 와 같은 방식이지만, 쿼리마다 batchSize를 고를 수 있다.
+ * */
+public final class BatchFetchSupport {
+
+    private BatchFetchSupport() {
+    }
+
+    public static <T> List<List<T>> paddedChunks(Collection<T> ids, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다.");
+        }
+
+        List<T> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += batchSize) {
+            List<T> chunk = new ArrayList<>(distinctIds.subList(from, Math.min(from + batchSize, distinctIds.size())));
+            int paddedSize = paddedSize(chunk.size(), batchSize);
+            T last = chunk.get(chunk.size() - 1);
+            while (chunk.size() < paddedSize) {
+                chunk.add(last);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    static int paddedSize(int size, int batchSize) {
+        int paddedSize = Integer.highestOneBit(size);
+        if (paddedSize < size) {
+            paddedSize <<= 1;
+        }
+        return Math.min(paddedSize, batchSize);
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.repository.projection;
+
+import lombok.Value;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/*
+ * < 엔티티를 거치지 않는 프로젝션 조회 >
+ *
+ * Spring Data JPA의 동적 프로젝션(findProjectionsByUsername)은
+ * 중첩 프로젝션(NestedClosedProjections.getTeam())이 있으면 엔티티 전체를 조회한 후 프로젝션으로 변환한다.
+ * -> 필요한 컬럼만 select 하고, Tuple을 바로 프로젝션(인터페이스 프록시 또는 DTO)으로 변환한다.
+ *
+ * ex) projectionExecutor.find(Member.class, MemberDto.class, "e.username = :username", Map.of("username", "member1"))
+ *     -> select e.id, e.username, j0.name from Member e left join e.team j0 where e.username = :username
+ *
+ * where 절에서 엔티티의 alias는 항상 e 이다.
+ * */
+@Component
+public class ProjectionExecutor {
+
+    private final EntityManager entityManager;
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    private final Map<QueryKey, ProjectionQuery<?>> queries = new ConcurrentHashMap<>();
+
+    public ProjectionExecutor(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <T> List<T> find(Class<?> entityClass, Class<T> type, String whereClause, Map<String, ?> parameters) {
+        ProjectionQuery<T> projectionQuery = getQuery(entityClass, type);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(projectionQuery.toJpql(whereClause), Tuple.class);
+        parameters.forEach(query::setParameter);
+
+        return query.getResultList()
+                .stream()
+                .map(projectionQuery.getRowMapper())
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> ProjectionQuery<T> getQuery(Class<?> entityClass, Class<T> type) {
+        return (ProjectionQuery<T>) queries.computeIfAbsent(new QueryKey(entityClass, type),
+                key -> new ProjectionQueryBuilder(entityManager.getMetamodel(), projectionFactory, entityClass).build(type));
+    }
+
+    @Value
+    private static class QueryKey {
+        Class<?> entityClass;
+        Class<?> type;
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.repository.projection;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.Tuple;
+import java.util.function.Function;
+
+/*
+ * 프로젝션 타입 하나에 대해 생성한 JPQL(select, from 절)과 row -> 프로젝션 변환 함수
+ * -> where 절만 바뀌므로, 타입마다 한 번만 만들어서 재사용한다.
+ * */
+@Getter
+@RequiredArgsConstructor
+class ProjectionQuery<T> {
+
+    private final String selectClause;
+    private final String fromClause;
+    private final Function<Tuple, T> rowMapper;
+
+    String toJpql(String whereClause) {
+        String jpql = "select " + selectClause + " from " + fromClause;
+        return whereClause == null ? jpql : jpql + " where " + whereClause;
+    }
+}
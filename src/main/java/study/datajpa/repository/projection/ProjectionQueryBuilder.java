@@ -0,0 +1,178 @@
+package study.datajpa.repository.projection;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.Tuple;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.util.*;
+import java.util.function.Function;
+
+/*
+ * < 프로젝션 타입 -> 컬럼만 조회하는 JPQL >
+ *
+ * 1. 인터페이스 (Closed Projection)
+ *    - getter 이름을 엔티티의 속성으로 사용한다.
+ *    - 반환 타입이 인터페이스인 getter(ex. TeamInfo getTeam())는 연관관계로 보고 left join 한다.
+ * 2. 클래스 (DTO)
+ *    - 파라미터가 가장 많은 public 생성자를 사용하고, 파라미터 이름을 엔티티의 속성 경로로 사용한다.
+ *    - teamName -> team.name 처럼 camelCase를 경로로 해석하고,
+ *      memberId -> id 처럼 엔티티 이름으로 시작하면 엔티티 이름을 뺀 속성으로 해석한다.
+ *    - 파라미터 이름은 -parameters 옵션으로 컴파일해야 알 수 있다. (Spring Boot Gradle Plugin이 추가해준다.)
+ *
+ * 어떤 경우에도 엔티티를 select 하지 않기 때문에 영속성 컨텍스트에 아무것도 남지 않는다.
+ * */
+class ProjectionQueryBuilder {
+
+    static final String ROOT_ALIAS = "e";
+
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final Metamodel metamodel;
+    private final ProjectionFactory projectionFactory;
+    private final Class<?> entityClass;
+
+    private final List<String> selections = new ArrayList<>();
+    private final Map<String, String> joinAliases = new HashMap<>();
+    private final StringBuilder joins = new StringBuilder();
+
+    ProjectionQueryBuilder(Metamodel metamodel, ProjectionFactory projectionFactory, Class<?> entityClass) {
+        this.metamodel = metamodel;
+        this.projectionFactory = projectionFactory;
+        this.entityClass = entityClass;
+    }
+
+    <T> ProjectionQuery<T> build(Class<T> type) {
+        Function<Object[], T> mapper = type.isInterface() ? interfaceMapper(type, "") : dtoMapper(type);
+
+        return new ProjectionQuery<>(
+                String.join(", ", selections),
+                entityClass.getSimpleName() + " " + ROOT_ALIAS + joins,
+                tuple -> mapper.apply(tuple.toArray()));
+    }
+
+    private <T> Function<Object[], T> interfaceMapper(Class<T> type, String pathPrefix) {
+        Map<String, Function<Object[], Object>> properties = nestedProperties(type, pathPrefix);
+        return row -> projectionFactory.createProjection(type, toMap(properties, row));
+    }
+
+    private Map<String, Function<Object[], Object>> nestedProperties(Class<?> type, String pathPrefix) {
+        ProjectionInformation information = projectionFactory.getProjectionInformation(type);
+        if (!information.isClosed()) {
+            throw new IllegalArgumentException("Open Projection은 지원하지 않습니다. type: " + type.getName());
+        }
+
+        Map<String, Function<Object[], Object>> properties = new LinkedHashMap<>();
+        for (PropertyDescriptor descriptor : information.getInputProperties()) {
+            String path = pathPrefix + descriptor.getName();
+            Class<?> propertyType = descriptor.getPropertyType();
+
+            if (propertyType.isInterface() && !propertyType.getName().startsWith("java.")) {
+                Map<String, Function<Object[], Object>> nested = nestedProperties(propertyType, path + ".");
+                properties.put(descriptor.getName(), row -> {
+                    Map<String, Object> values = toMap(nested, row);
+                    // left join 결과가 없으면(ex. 팀이 없는 회원) 프로젝션도 null 이다.
+                    return values.values().stream().allMatch(Objects::isNull) ? null : values;
+                });
+            } else {
+                int index = select(path);
+                properties.put(descriptor.getName(), row -> row[index]);
+            }
+        }
+        return properties;
+    }
+
+    private static Map<String, Object> toMap(Map<String, Function<Object[], Object>> properties, Object[] row) {
+        Map<String, Object> values = new HashMap<>();
+        properties.forEach((name, mapper) -> values.put(name, mapper.apply(row)));
+        return values;
+    }
+
+    private <T> Function<Object[], T> dtoMapper(Class<T> type) {
+        Constructor<?> constructor = Arrays.stream(type.getConstructors())
+                .max(Comparator.comparingInt(Constructor::getParameterCount))
+                .orElseThrow(() -> new IllegalArgumentException("public 생성자가 없습니다. type: " + type.getName()));
+
+        String[] parameterNames = PARAMETER_NAME_DISCOVERER.getParameterNames(constructor);
+        if (parameterNames == null) {
+            throw new IllegalStateException("생성자 파라미터 이름을 알 수 없습니다. -parameters 옵션으로 컴파일해야 합니다.");
+        }
+
+        int[] indexes = Arrays.stream(parameterNames)
+                .mapToInt(name -> select(resolvePath(name)))
+                .toArray();
+
+        return row -> {
+            Object[] args = new Object[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                args[i] = row[indexes[i]];
+            }
+            return type.cast(BeanUtils.instantiateClass(constructor, args));
+        };
+    }
+
+    private String resolvePath(String parameterName) {
+        try {
+            return PropertyPath.from(parameterName, entityClass).toDotPath();
+        } catch (PropertyReferenceException e) {
+            String entityPrefix = StringUtils.uncapitalize(entityClass.getSimpleName());
+            if (parameterName.startsWith(entityPrefix) && parameterName.length() > entityPrefix.length()) {
+                String property = StringUtils.uncapitalize(parameterName.substring(entityPrefix.length()));
+                return PropertyPath.from(property, entityClass).toDotPath();
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * "team.name" 같은 경로를 select 절에 추가하고, 결과 row에서의 위치를 반환한다.
+     * -> 중간 경로의 연관관계는 left join 하고, 같은 연관관계는 한 번만 join 한다.
+     * */
+    private int select(String path) {
+        String[] segments = path.split("\\.");
+        ManagedType<?> managedType = metamodel.managedType(entityClass);
+        String alias = ROOT_ALIAS;
+        String associationPath = "";
+
+        for (int i = 0; i < segments.length - 1; i++) {
+            Attribute<?, ?> attribute = managedType.getAttribute(segments[i]);
+            if (attribute.isCollection()) {
+                throw new IllegalArgumentException("컬렉션 연관관계는 프로젝션할 수 없습니다. path: " + path);
+            }
+
+            associationPath = associationPath + "." + segments[i];
+            if (attribute.isAssociation()) {
+                String parentAlias = alias;
+                String segment = segments[i];
+                alias = joinAliases.computeIfAbsent(associationPath, key -> {
+                    String joinAlias = "j" + joinAliases.size();
+                    joins.append(" left join ").append(parentAlias).append('.').append(segment).append(' ').append(joinAlias);
+                    return joinAlias;
+                });
+            } else {
+                // @Embedded 값 타입은 join 없이 경로로 접근한다.
+                alias = alias + "." + segments[i];
+            }
+            managedType = metamodel.managedType(((SingularAttribute<?, ?>) attribute).getJavaType());
+        }
+
+        Attribute<?, ?> attribute = managedType.getAttribute(segments[segments.length - 1]);
+        if (attribute.isAssociation() || attribute.isCollection()) {
+            throw new IllegalArgumentException("엔티티를 select 하면 엔티티를 조회하게 됩니다. 컬럼까지 지정해주세요. path: " + path);
+        }
+
+        selections.add(alias + "." + attribute.getName());
+        return selections.size() - 1;
+    }
+}
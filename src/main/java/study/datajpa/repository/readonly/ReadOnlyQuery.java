@@ -0,0 +1,13 @@
+package study.datajpa.repository.readonly;
+
+import java.lang.annotation.*;
+
+/*
+ * 이름이 조회 접두사(find, get, read, query, count, exists, search)로 시작하지 않는 조회 메소드에 붙인다.
+ * -> @ReadOnlyRepository에서 이 메소드도 읽기 전용 트랜잭션으로 실행된다. (ReadOnlyQueryAspect)
+ * */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnlyQuery {
+}
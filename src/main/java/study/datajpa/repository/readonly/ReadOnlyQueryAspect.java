@@ -0,0 +1,128 @@
+package study.datajpa.repository.readonly;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/*
+ * @ReadOnlyRepository가 붙은 Repository의 조회 메소드를 읽기 전용 트랜잭션으로 실행한다.
+ *
+ * 이미 트랜잭션이 있는 경우에는 그 트랜잭션을 그대로 사용한다.
+ * -> 쓰기 트랜잭션 안에서 조회한 엔티티는 변경 감지가 되어야 하기 때문이다. (ex. findById 후 changeUsername)
+ *    이때도 읽기 전용으로 조회하고 싶다면 findReadOnlyByUsername처럼 org.hibernate.readOnly 힌트를 사용하자.
+ *
+ * 읽기 전용으로 실행하는 메소드는 조회 메소드로 확인된 것만이다. (새로 추가한 변경 메소드가 읽기 전용으로 실행되지 않도록)
+ * 1. 이름이 조회 접두사(find, get, read, query, count, exists, search)로 시작하는 메소드
+ * 2. @ReadOnlyQuery가 붙은 메소드
+ * -> 그 외의 메소드는 그대로 실행된다. (save, delete, flush, bulkAgePlus, saveAllBatched...)
+ *
+ * 조회 메소드여도 다음은 제외한다.
+ * -> @Modifying: 이름과 상관없이 변경 쿼리다.
+ * -> @Lock: 비관적 락은 변경하기 위해서 거는 것이므로 호출한 쪽의 트랜잭션에서 실행해야 한다.
+ * -> Stream을 반환하는 메소드: 호출한 쪽의 트랜잭션 안에서 사용해야 한다.
+ * */
+@Aspect
+@Component
+public class ReadOnlyQueryAspect {
+
+    private static final String[] QUERY_PREFIXES = { "find", "get", "read", "query", "count", "exists", "search" };
+
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final Map<Class<?>, Boolean> readOnlyRepositories = new ConcurrentHashMap<>();
+    private volatile TransactionTemplate readOnlyTransaction;
+
+    /*
+     * Aspect는 다른 Bean보다 먼저 생성되므로, TransactionManager(-> EntityManagerFactory)는 처음 사용할 때 조회한다.
+     * */
+    public ReadOnlyQueryAspect(ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Around("target(org.springframework.data.repository.Repository) || @within(org.springframework.stereotype.Repository)")
+    public Object readOnly(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!isReadOnlyRepository(joinPoint.getTarget())
+                || TransactionSynchronizationManager.isActualTransactionActive()
+                || !isQuery(((MethodSignature) joinPoint.getSignature()).getMethod())) {
+            return joinPoint.proceed();
+        }
+
+        try {
+            return readOnlyTransaction().execute(status -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedExceptionWrapper(e);
+                }
+            });
+        } catch (CheckedExceptionWrapper e) {
+            throw e.getCause();
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        if (readOnlyTransaction == null) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager.getObject());
+            transactionTemplate.setReadOnly(true);
+            readOnlyTransaction = transactionTemplate;
+        }
+        return readOnlyTransaction;
+    }
+
+    private boolean isReadOnlyRepository(Object target) {
+        return readOnlyRepositories.computeIfAbsent(target.getClass(), targetClass -> {
+            if (AnnotatedElementUtils.hasAnnotation(AopUtils.getTargetClass(target), ReadOnlyRepository.class)) {
+                return true;
+            }
+            for (Class<?> repositoryInterface : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+                if (repositoryInterface.isAnnotationPresent(ReadOnlyRepository.class)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private boolean isQuery(Method method) {
+        if (method.isAnnotationPresent(Modifying.class)
+                || method.isAnnotationPresent(Lock.class)
+                || Stream.class.isAssignableFrom(method.getReturnType())) {
+            return false;
+        }
+        if (method.isAnnotationPresent(ReadOnlyQuery.class)) {
+            return true;
+        }
+        for (String prefix : QUERY_PREFIXES) {
+            if (method.getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class CheckedExceptionWrapper extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private CheckedExceptionWrapper(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.repository.readonly;
+
+import java.lang.annotation.*;
+
+/*
+ * < 읽기 전용 조회 모드 >
+ *
+ * Repository에 붙이면, 조회 메소드(find/get/read/query/count/exists/search로 시작하거나 @ReadOnlyQuery가 붙은 메소드)를
+ * 읽기 전용 트랜잭션에서 실행한다. (ReadOnlyQueryAspect)
+ *
+ * 읽기 전용 트랜잭션에서는
+ * 1. 조회한 엔티티의 스냅샷을 만들지 않는다. (org.hibernate.readOnly와 같은 효과)
+ * 2. FlushMode.MANUAL로 동작해서 flush(변경 감지)를 하지 않는다.
+ * 3. JDBC 커넥션도 readOnly로 설정된다.
+ * */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnlyRepository {
+}
@@ -0,0 +1,36 @@
+package study.datajpa.repository.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/*
+ * < Item id -> Shard 번호 >
+ * -> String.hashCode()는 비슷한 id(ex. item1, item2 ...)가 한쪽 Shard로 몰리기 쉬워서 CRC32를 사용한다.
+ * -> JVM, 서버가 달라도 항상 같은 Shard가 나와야 하므로, 실행마다 달라지는 값(ex. identityHashCode)은 쓰면 안된다.
+ *
+ * 주의) Shard 수를 바꾸면 대부분의 id가 다른 Shard로 옮겨가므로, 데이터 재배치 없이 Shard 수를 바꾸면 안된다.
+ * */
+public class ItemShardRouter {
+
+    private final int shardCount;
+
+    public ItemShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount는 1 이상이어야 합니다.");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardOf(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("id가 없는 Item은 Shard를 정할 수 없습니다.");
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(id.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc32.getValue() % shardCount);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+}
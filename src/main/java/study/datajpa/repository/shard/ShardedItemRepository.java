@@ -0,0 +1,330 @@
+package study.datajpa.repository.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.ItemDto;
+import study.datajpa.entity.Item;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+
+/*
+ * < Item 수평 분할(Sharding) >
+ *
+ * Item.id를 ItemShardRouter로 해싱해서 N개의 DataSource(Shard) 중 하나에 저장한다.
+ * -> Shard마다 EntityManagerFactory를 만들 수는 없으므로 JDBC로 직접 조회/저장하고, 결과는 ItemDto로 반환한다.
+ *
+ * 1. findById: id로 Shard를 정해서 한 Shard만 조회한다.
+ * 2. findAll(Sort), findAll(Pageable), count: 모든 Shard에 동시에 조회하고(scatter), 정렬된 결과를 병합한다(gather).
+ *    -> 페이징은 Shard마다 (offset + size)개를 조회해야 하므로, 뒤쪽 페이지일수록 비싸다.
+ * 3. insertAll: Shard별로 나눠서 동시에 JDBC batch INSERT 한다.
+ *    주의) 트랜잭션은 Shard마다 따로이다. 한 Shard가 실패해도 다른 Shard에 저장된 데이터는 롤백되지 않는다.
+ * */
+public class ShardedItemRepository implements DisposableBean {
+
+    private static final String COLUMNS = "id, created_date, last_modified_date";
+
+    /*
+     * 정렬할 수 있는 프로퍼티 -> 컬럼 (SQL에 그대로 들어가므로 정해진 값만 허용한다.)
+     * */
+    private static final Map<String, String> SORT_COLUMNS = new HashMap<>();
+    private static final Map<String, Comparator<ItemDto>> SORT_COMPARATORS = new HashMap<>();
+
+    static {
+        SORT_COLUMNS.put("id", "id");
+        SORT_COLUMNS.put("createdDate", "created_date");
+        SORT_COLUMNS.put("lastModifiedDate", "last_modified_date");
+        SORT_COMPARATORS.put("id", nullsFirst(ItemDto::getId));
+        SORT_COMPARATORS.put("createdDate", nullsFirst(ItemDto::getCreatedDate));
+        SORT_COMPARATORS.put("lastModifiedDate", nullsFirst(ItemDto::getLastModifiedDate));
+    }
+
+    private static final RowMapper<ItemDto> ROW_MAPPER = (rs, rowNum) -> new ItemDto(
+            rs.getString("id"),
+            toLocalDateTime(rs.getTimestamp("created_date")),
+            toLocalDateTime(rs.getTimestamp("last_modified_date")));
+
+    private final List<Shard> shards;
+    private final ItemShardRouter router;
+    private final ExecutorService executor;
+
+    public ShardedItemRepository(List<DataSource> dataSources) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("Shard가 하나 이상 필요합니다.");
+        }
+        List<Shard> shards = new ArrayList<>(dataSources.size());
+        for (int i = 0; i < dataSources.size(); i++) {
+            shards.add(new Shard(i, dataSources.get(i)));
+        }
+        this.shards = shards;
+        this.router = new ItemShardRouter(dataSources.size());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(dataSources.size(), runnable -> {
+            Thread thread = new Thread(runnable, "item-shard-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+     * Shard에는 Hibernate(ddl-auto)가 테이블을 만들지 않으므로, 필요하면 직접 만든다.
+     * */
+    public void createSchemaIfNotExists() {
+        scatter(shard -> {
+            shard.jdbcTemplate.execute("create table if not exists item (" +
+                    "id varchar(255) not null primary key, " +
+                    "created_date timestamp, " +
+                    "last_modified_date timestamp)");
+            return null;
+        });
+    }
+
+    public int shardOf(String id) {
+        return router.shardOf(id);
+    }
+
+    public Optional<ItemDto> findById(String id) {
+        List<ItemDto> result = shards.get(router.shardOf(id)).jdbcTemplate
+                .query("select " + COLUMNS + " from item where id = ?", ROW_MAPPER, id);
+        return result.stream().findFirst();
+    }
+
+    public long count() {
+        return scatter(Shard::count).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public List<ItemDto> findAll(Sort sort) {
+        Sort mergeSort = withIdTieBreaker(sort);
+        String sql = "select " + COLUMNS + " from item order by " + orderBy(mergeSort);
+
+        return merge(scatter(shard -> shard.jdbcTemplate.query(sql, ROW_MAPPER)), mergeSort, 0, Integer.MAX_VALUE);
+    }
+
+    public Page<ItemDto> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<ItemDto> content = findAll(pageable.getSort());
+            return new PageImpl<>(content, pageable, content.size());
+        }
+
+        Sort mergeSort = withIdTieBreaker(pageable.getSort());
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        String sql = "select " + COLUMNS + " from item order by " + orderBy(mergeSort) + " limit ?";
+
+        // 컨텐츠와 count를 한 번에 조회한다. (Shard마다 한 번만 왕복)
+        List<ShardPage> shardPages = scatter(shard ->
+                new ShardPage(shard.jdbcTemplate.query(sql, ROW_MAPPER, limit), shard.count()));
+
+        List<List<ItemDto>> contents = shardPages.stream().map(shardPage -> shardPage.content).collect(toList());
+        long total = shardPages.stream().mapToLong(shardPage -> shardPage.count).sum();
+
+        List<ItemDto> content = merge(contents, mergeSort, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /*
+     * 새로운 Item이라고 확신할 수 있을 때 사용한다. (ItemCustomRepository.insertAll과 같다.)
+     * -> 반환 값은 INSERT 된 row 수이다.
+     * */
+    public int insertAll(Collection<Item> items, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다.");
+        }
+
+        Map<Integer, List<Item>> itemsByShard = new HashMap<>();
+        for (Item item : items) {
+            itemsByShard.computeIfAbsent(router.shardOf(item.getId()), shard -> new ArrayList<>()).add(item);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return scatter(shard -> {
+            List<Item> shardItems = itemsByShard.get(shard.index);
+            if (shardItems == null) {
+                return 0;
+            }
+            return shard.transactionTemplate.execute(status -> {
+                shard.jdbcTemplate.batchUpdate("insert into item (" + COLUMNS + ") values (?, ?, ?)",
+                        shardItems, batchSize, (ps, item) -> {
+                            ps.setString(1, item.getId());
+                            ps.setTimestamp(2, now);
+                            ps.setTimestamp(3, now);
+                        });
+                return shardItems.size();
+            });
+        }).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /*
+     * Shard의 DataSource(커넥션 풀)도 함께 닫는다.
+     * */
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdownNow();
+        for (Shard shard : shards) {
+            if (shard.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) shard.dataSource).close();
+            }
+        }
+    }
+
+    /*
+     * 모든 Shard에 동시에 실행하고, Shard 순서대로 결과를 반환한다.
+     * -> 하나라도 실패하면 그 예외를 그대로 던진다.
+     * */
+    private <T> List<T> scatter(Function<Shard, T> work) {
+        if (shards.size() == 1) {
+            return Collections.singletonList(work.apply(shards.get(0)));
+        }
+
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> work.apply(shard), executor))
+                .collect(toList());
+        try {
+            return futures.stream().map(CompletableFuture::join).collect(toList());
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * Shard마다 정렬된 결과를 k-way merge 한다. (offset 만큼 건너뛰고 size 만큼 반환)
+     * */
+    private List<ItemDto> merge(List<List<ItemDto>> sortedLists, Sort sort, long offset, int size) {
+        Comparator<ItemDto> comparator = comparator(sort);
+        PriorityQueue<Cursor> queue = new PriorityQueue<>((a, b) -> comparator.compare(a.current(), b.current()));
+        for (List<ItemDto> sortedList : sortedLists) {
+            if (!sortedList.isEmpty()) {
+                queue.add(new Cursor(sortedList));
+            }
+        }
+
+        List<ItemDto> result = new ArrayList<>(Math.min(size, 1024));
+        long skipped = 0;
+        while (!queue.isEmpty() && result.size() < size) {
+            Cursor cursor = queue.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(cursor.current());
+            }
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * 같은 값이 여러 Shard에 있으면 페이지마다 순서가 달라질 수 있으므로, 항상 id로 한 번 더 정렬한다.
+     * */
+    private Sort withIdTieBreaker(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORT_COLUMNS.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("정렬할 수 없는 프로퍼티입니다. property: " + order.getProperty());
+            }
+        }
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+    }
+
+    /*
+     * null은 가장 작은 값으로 취급한다. (SQL 정렬과 병합 정렬의 결과가 같아야 한다.)
+     * */
+    private String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ");
+        for (Sort.Order order : sort) {
+            orderBy.add(SORT_COLUMNS.get(order.getProperty())
+                    + (order.isAscending() ? " asc nulls first" : " desc nulls last"));
+        }
+        return orderBy.toString();
+    }
+
+    private Comparator<ItemDto> comparator(Sort sort) {
+        Comparator<ItemDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ItemDto> next = SORT_COMPARATORS.get(order.getProperty());
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    /*
+     * null은 가장 작은 값으로 취급한다. (orderBy의 nulls first/last와 같은 순서)
+     * */
+    private static <T extends Comparable<? super T>> Comparator<ItemDto> nullsFirst(Function<ItemDto, T> value) {
+        return Comparator.comparing(value, Comparator.nullsFirst(Comparator.<T>naturalOrder()));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static class Shard {
+        private final int index;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        private Shard(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        private long count() {
+            Long count = jdbcTemplate.queryForObject("select count(*) from item", Long.class);
+            return count == null ? 0 : count;
+        }
+    }
+
+    private static class ShardPage {
+        private final List<ItemDto> content;
+        private final long count;
+
+        private ShardPage(List<ItemDto> content, long count) {
+            this.content = content;
+            this.count = count;
+        }
+    }
+
+    private static class Cursor {
+        private final List<ItemDto> items;
+        private int position;
+
+        private Cursor(List<ItemDto> items) {
+            this.items = items;
+        }
+
+        private ItemDto current() {
+            return items.get(position);
+        }
+
+        private boolean next() {
+            return ++position < items.size();
+        }
+    }
+}
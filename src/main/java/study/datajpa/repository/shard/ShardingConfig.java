@@ -0,0 +1,51 @@
+package study.datajpa.repository.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * datajpa.sharding.enabled: true 일 때만 등록된다.
+ * -> Shard의 DataSource는 Bean으로 등록하지 않는다. (DataSource Bean이 여러 개가 되면 JPA가 사용할 DataSource를 정할 수 없다.)
+ * */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "datajpa.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardedItemRepository shardedItemRepository(ShardingProperties properties,
+                                                       DataSourceProperties dataSourceProperties,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.ShardProperties shardProperties = properties.getShards().get(i);
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setJdbcUrl(shardProperties.getUrl());
+            dataSource.setUsername(shardProperties.getUsername());
+            dataSource.setPassword(shardProperties.getPassword());
+            dataSource.setPoolName("item-shard-" + i);
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            dataSources.add(dataSource);
+        }
+
+        ShardedItemRepository repository = new ShardedItemRepository(dataSources);
+        if (properties.isInitializeSchema()) {
+            repository.createSchemaIfNotExists();
+        }
+        return repository;
+    }
+}
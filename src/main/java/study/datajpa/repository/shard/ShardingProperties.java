@@ -0,0 +1,31 @@
+package study.datajpa.repository.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.sharding")
+public class ShardingProperties {
+
+    // true 이면 ShardedItemRepository를 등록한다.
+    private boolean enabled = false;
+
+    // 시작할 때 Shard마다 item 테이블을 만든다. (이미 있으면 그대로 둔다.)
+    private boolean initializeSchema = true;
+
+    // 순서가 Shard 번호이다. 주의) 순서나 개수를 바꾸면 id -> Shard 매핑이 바뀐다.
+    private List<ShardProperties> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class ShardProperties {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.NoSuchElementException;
+
+/*
+ * < 회원 수정 >
+ *
+ * findLockByUsername(select for update) 대신 @Version으로 충돌을 감지하고, 충돌하면 다시 조회해서 수정한다.
+ * -> 같은 회원을 동시에 수정해도 lock을 기다리지 않는다.
+ * */
+@Service
+@RequiredArgsConstructor
+public class MemberService {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final OptimisticLockRetryExecutor retryExecutor;
+
+    public void changeUsername(Long memberId, String username) {
+        retryExecutor.execute("MemberService.changeUsername", () -> {
+            findMember(memberId).changeUsername(username);
+            return null;
+        });
+    }
+
+    public void changeTeam(Long memberId, Long teamId) {
+        retryExecutor.execute("MemberService.changeTeam", () -> {
+            Team team = teamRepository.findById(teamId)
+                    .orElseThrow(() -> new NoSuchElementException("해당 팀은 존재하지 않습니다."));
+            findMember(memberId).changeTeam(team);
+            return null;
+        });
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+                .orElseThrow(() -> new NoSuchElementException("해당 회원은 존재하지 않습니다."));
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.service;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(OptimisticLockRetryProperties.class)
+public class OptimisticLockConfig {
+
+    @Bean
+    public OptimisticLockStatistics optimisticLockStatistics() {
+        return new OptimisticLockStatistics();
+    }
+
+    @Bean
+    public OptimisticLockRetryExecutor optimisticLockRetryExecutor(PlatformTransactionManager transactionManager,
+                                                                   OptimisticLockRetryProperties properties,
+                                                                   OptimisticLockStatistics statistics) {
+        return new OptimisticLockRetryExecutor(transactionManager, properties, statistics);
+    }
+}
@@ -0,0 +1,77 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/*
+ * < 낙관적 락 충돌 시 재시도 >
+ *
+ * 시도마다 새로운 트랜잭션에서 엔티티를 다시 조회하고 수정한다.
+ * -> 충돌(OptimisticLockingFailureException)이 나면 backoff 만큼 기다린 후 다시 시도하고, maxAttempts를 넘으면 예외를 던진다.
+ * -> 대기 시간은 0 ~ backoff 사이의 랜덤 값(full jitter)이다. (동시에 충돌한 요청들이 또 동시에 재시도하지 않도록)
+ *
+ * 주의)
+ * 1. 이미 시작된 트랜잭션 안에서 호출하면 안 된다. (영속성 컨텍스트에 오래된 엔티티가 남아있어서 재시도해도 계속 충돌한다.)
+ * 2. work는 여러 번 실행될 수 있으므로, 트랜잭션 밖의 부수 효과(외부 API 호출 등)가 없어야 한다.
+ * */
+@Slf4j
+public class OptimisticLockRetryExecutor {
+
+    private final TransactionTemplate transaction;
+    private final OptimisticLockRetryProperties properties;
+    private final OptimisticLockStatistics statistics;
+
+    public OptimisticLockRetryExecutor(PlatformTransactionManager transactionManager,
+                                       OptimisticLockRetryProperties properties,
+                                       OptimisticLockStatistics statistics) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.statistics = statistics;
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("트랜잭션 밖에서 호출해야 재시도할 수 있습니다. operation: " + operation);
+        }
+
+        statistics.recordExecution(operation);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transaction.execute(status -> work.get());
+                if (attempt > 1) {
+                    statistics.recordRecovered(operation);
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                statistics.recordConflict(operation);
+                if (attempt >= properties.getMaxAttempts()) {
+                    statistics.recordExhausted(operation);
+                    throw e;
+                }
+                log.debug("낙관적 락 충돌, 재시도합니다. operation: {}, attempt: {}", operation, attempt);
+                sleep(backoffMillis(attempt));
+            }
+        }
+    }
+
+    long backoffMillis(int attempt) {
+        double backoff = properties.getInitialBackoff().toMillis() * Math.pow(properties.getMultiplier(), attempt - 1);
+        long maxBackoff = Math.min((long) backoff, properties.getMaxBackoff().toMillis());
+        return maxBackoff <= 0 ? 0 : ThreadLocalRandom.current().nextLong(maxBackoff + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트 되었습니다.", e);
+        }
+    }
+}
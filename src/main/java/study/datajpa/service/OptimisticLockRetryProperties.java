@@ -0,0 +1,23 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.optimistic-lock.retry")
+public class OptimisticLockRetryProperties {
+
+    // 첫 시도를 포함한 최대 시도 횟수
+    private int maxAttempts = 3;
+
+    // 첫 재시도 전 대기 시간 (재시도마다 multiplier 배씩 늘어난다.)
+    private Duration initialBackoff = Duration.ofMillis(20);
+
+    private double multiplier = 2.0;
+
+    private Duration maxBackoff = Duration.ofMillis(500);
+}
@@ -0,0 +1,61 @@
+package study.datajpa.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * < 낙관적 락 충돌 통계 >
+ * 작업(operation)별 실행 수, 충돌 수, 재시도 후 성공 수, 재시도를 모두 실패한 수
+ * -> 충돌이 많은 작업은 재시도보다 비관적 락이나 설계 변경을 검토하자.
+ * */
+public class OptimisticLockStatistics {
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    void recordExecution(String operation) {
+        counters(operation).executions.increment();
+    }
+
+    void recordConflict(String operation) {
+        counters(operation).conflicts.increment();
+    }
+
+    void recordRecovered(String operation) {
+        counters(operation).recovered.increment();
+    }
+
+    void recordExhausted(String operation) {
+        counters(operation).exhausted.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new TreeMap<>();
+        counters.forEach((operation, counter) -> {
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("executions", counter.executions.sum());
+            values.put("conflicts", counter.conflicts.sum());
+            values.put("recovered", counter.recovered.sum());
+            values.put("exhausted", counter.exhausted.sum());
+            result.put(operation, values);
+        });
+        return result;
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    private Counters counters(String operation) {
+        return counters.computeIfAbsent(operation, key -> new Counters());
+    }
+
+    private static class Counters {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder recovered = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+}
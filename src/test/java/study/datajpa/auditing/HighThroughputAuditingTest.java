@@ -0,0 +1,91 @@
+package study.datajpa.auditing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 설정값(datajpa.auditing.high-throughput)만 다른 Spring 컨텍스트를 띄우면 같은 in-memory DB의 테이블을 다시 만들기 때문에,
+ * 컨텍스트 없이 트랜잭션 동기화만 직접 시작해서 검증한다.
+ * */
+class HighThroughputAuditingTest {
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void sharedTimestampInTransaction() throws Exception {
+        // given
+        TransactionScopedDateTimeProvider dateTimeProvider = new TransactionScopedDateTimeProvider();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        Optional<TemporalAccessor> first = dateTimeProvider.getNow();
+        Thread.sleep(10);
+        Optional<TemporalAccessor> second = dateTimeProvider.getNow();
+        completeTransaction();
+        Optional<TemporalAccessor> afterCompletion = dateTimeProvider.getNow();
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(afterCompletion).isNotEqualTo(first);
+    }
+
+    @Test
+    public void auditorCachedPerRequest() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        AuditorAware<String> auditorAware = new RequestScopedAuditorAware<>(() -> Optional.of("user" + calls.incrementAndGet()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        // when
+        Optional<String> first = auditorAware.getCurrentAuditor();
+        Optional<String> second = auditorAware.getCurrentAuditor();
+
+        // then
+        assertThat(first).contains("user1");
+        assertThat(second).contains("user1");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void auditorCachedPerTransactionOutsideRequest() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        AuditorAware<String> auditorAware = new RequestScopedAuditorAware<>(() -> Optional.of("user" + calls.incrementAndGet()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        auditorAware.getCurrentAuditor();
+        auditorAware.getCurrentAuditor();
+        completeTransaction();
+        auditorAware.getCurrentAuditor();
+
+        // then
+        // 트랜잭션 안에서 한 번 + 트랜잭션이 끝난 후 한 번
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    private static void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
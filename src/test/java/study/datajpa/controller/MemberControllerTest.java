@@ -0,0 +1,56 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberCursor;
+import study.datajpa.repository.MemberRepository;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class MemberControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private MockMvc mockMvc;
+    private Member member;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        member = memberRepository.save(new Member("cursorMember", 10));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    public void listByCursor() throws Exception {
+        mockMvc.perform(get("/members/cursor")
+                        .param("cursor", MemberCursor.of(member).encode()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void listByInvalidCursor() throws Exception {
+        // Base64가 아닌 값, 구분자가 없는 값
+        mockMvc.perform(get("/members/cursor").param("cursor", "not a cursor!"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/cursor").param("cursor", "bWVtYmVy"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,227 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import study.datajpa.monitoring.metrics.TimedJpaTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Primary와 복제본 2개를 각각 다른 H2 메모리 DB로 만들고, 각 DB에 자신의 이름을 저장해서
+ * 어느 DB에서 조회되었는지 확인한다. (애플리케이션 컨텍스트의 DataSource는 사용하지 않는다.)
+ * */
+class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+
+    @BeforeEach
+    public void setUp() {
+        primary = h2("primary");
+        replica1 = h2("replica1");
+        replica2 = h2("replica2");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (HikariDataSource dataSource : Arrays.asList(primary, replica1, replica2)) {
+            new JdbcTemplate(dataSource).execute("drop table node");
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void readOnlyTransactionUsesReplicas() {
+        // given
+        Routing routing = new Routing(ReplicaSelection.ROUND_ROBIN, ReplicaLagProbe.NONE);
+
+        // when
+        String first = routing.read();
+        String second = routing.read();
+        String write = routing.write();
+
+        // then
+        assertThat(Arrays.asList(first, second)).containsExactlyInAnyOrder("replica1", "replica2");
+        assertThat(write).isEqualTo("primary");
+        // 트랜잭션 밖의 SQL은 Primary에서 실행한다.
+        assertThat(routing.jdbcTemplate.queryForObject("select name from node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    public void leastConnectionsSkipsBusyReplica() throws Exception {
+        // given
+        Routing routing = new Routing(ReplicaSelection.LEAST_CONNECTIONS, ReplicaLagProbe.NONE);
+
+        // when
+        Connection busy = replica1.getConnection();
+        try {
+            // then
+            assertThat(routing.read()).isEqualTo("replica2");
+            assertThat(routing.read()).isEqualTo("replica2");
+        } finally {
+            busy.close();
+        }
+    }
+
+    @Test
+    public void laggingReplicaIsNotUsed() {
+        // given
+        ReplicaLagProbe lagProbe = replica -> replica == replica1 ? Duration.ofMinutes(1) : Duration.ZERO;
+        Routing routing = new Routing(ReplicaSelection.ROUND_ROBIN, lagProbe);
+
+        // when, then
+        assertThat(routing.read()).isEqualTo("replica2");
+        assertThat(routing.read()).isEqualTo("replica2");
+    }
+
+    @Test
+    public void usePrimaryWhenAllReplicasLagOrFail() {
+        // given
+        ReplicaLagProbe lagProbe = replica -> {
+            if (replica == replica1) {
+                return Duration.ofMinutes(1);
+            }
+            throw new IllegalStateException("replication stopped");
+        };
+        Routing routing = new Routing(ReplicaSelection.ROUND_ROBIN, lagProbe);
+
+        // when, then
+        assertThat(routing.read()).isEqualTo("primary");
+    }
+
+    @Test
+    public void readAfterWriteUsesReplicaUnlessPrimaryIsRequested() {
+        // given
+        Routing routing = new Routing(ReplicaSelection.ROUND_ROBIN, ReplicaLagProbe.NONE);
+
+        // when
+        routing.write();
+
+        // then
+        // 같은 스레드에서 커밋한 직후여도 자동으로 Primary를 사용하지 않는다. (usePrimary로 직접 요청해야 한다.)
+        assertThat(routing.read()).startsWith("replica");
+        assertThat(DataSourceRouting.usePrimary(routing::read)).isEqualTo("primary");
+    }
+
+    @Test
+    public void usePrimaryOverride() {
+        // given
+        Routing routing = new Routing(ReplicaSelection.ROUND_ROBIN, ReplicaLagProbe.NONE);
+
+        // when
+        String name = DataSourceRouting.usePrimary(routing::read);
+
+        // then
+        assertThat(name).isEqualTo("primary");
+        assertThat(routing.read()).startsWith("replica");
+    }
+
+    /*
+     * @Transactional(readOnly = true)와 같은 경로: TimedJpaTransactionManager -> Hibernate Session -> 복제본
+     * -> JpaTransactionManager는 트랜잭션을 시작할 때 커넥션을 준비하므로,
+     *    그 전에 DataSource가 결정되지 않는지(LazyConnectionDataSourceProxy) 확인한다.
+     * */
+    @Test
+    public void jpaReadOnlyTransactionUsesReplica() {
+        // given
+        Routing routing = new Routing(ReplicaSelection.ROUND_ROBIN, ReplicaLagProbe.NONE);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(routing.dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(getClass().getPackage().getName());
+        factoryBean.setPersistenceUnitName("routing");
+        // 2차 캐시를 사용하면 종료할 때 애플리케이션 컨텍스트와 같이 쓰는 JCache CacheManager까지 닫힌다.
+        factoryBean.getJpaPropertyMap().put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+
+        try {
+            TimedJpaTransactionManager transactionManager = new TimedJpaTransactionManager(new SimpleMeterRegistry());
+            transactionManager.setEntityManagerFactory(entityManagerFactory);
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+
+            // when
+            Object read = readOnlyTransaction.execute(status ->
+                    entityManager.createNativeQuery("select name from node").getSingleResult());
+            Object write = new TransactionTemplate(transactionManager).execute(status -> {
+                entityManager.createNativeQuery("update node set name = name").executeUpdate();
+                return entityManager.createNativeQuery("select name from node").getSingleResult();
+            });
+
+            // then
+            assertThat(read).asString().startsWith("replica");
+            assertThat(write).isEqualTo("primary");
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    private HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private class Routing {
+
+        private final LazyConnectionDataSourceProxy dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnlyTransaction;
+        private final TransactionTemplate transaction;
+
+        private Routing(ReplicaSelection selection, ReplicaLagProbe lagProbe) {
+            List<Replica> replicas = Arrays.asList(new Replica("replica1", replica1), new Replica("replica2", replica2));
+            ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replicas,
+                    selection, Duration.ofSeconds(5), Duration.ofMinutes(1), lagProbe);
+            this.dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+        }
+
+        private String read() {
+            return readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+
+        private String write() {
+            return transaction.execute(status -> {
+                jdbcTemplate.update("update node set name = name");
+                return jdbcTemplate.queryForObject("select name from node", String.class);
+            });
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.entity;
+
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * 바이트코드 향상은 Gradle 빌드(hibernate.enhance)에서만 적용된다.
+ * -> 향상 여부 확인은 Gradle이 datajpa.enhancement=true로 실행할 때만 하고,
+ *    연관관계 편의 메소드는 향상 여부와 상관없이 같은 결과여야 하므로 항상 확인한다.
+ * */
+@SpringBootTest
+@Transactional
+class EntityEnhancementTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void entitiesAreEnhanced() {
+        assumeTrue(Boolean.getBoolean("datajpa.enhancement"), "바이트코드 향상이 적용되지 않은 빌드");
+
+        assertThat(SelfDirtinessTracker.class.isAssignableFrom(Member.class)).isTrue();
+        assertThat(SelfDirtinessTracker.class.isAssignableFrom(Team.class)).isTrue();
+        assertThat(ManagedEntity.class.isAssignableFrom(Member.class)).isTrue();
+    }
+
+    @Test
+    public void changeTeamDoesNotDuplicateMembers() {
+        // given
+        Team teamA = new Team("enhanceTeamA");
+        Team teamB = new Team("enhanceTeamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        // when
+        Member member = new Member("enhanceMember", 10, teamA);
+        entityManager.persist(member);
+        member.changeTeam(teamA);
+
+        // then
+        assertThat(teamA.getMembers()).containsExactly(member);
+
+        // 향상된 경우에는 teamA.members에서도 제거되므로 teamB만 확인한다.
+        member.changeTeam(teamB);
+        assertThat(teamB.getMembers()).containsExactly(member);
+
+        // 조회한 팀(초기화된 members)에서도 중복으로 추가하지 않는다.
+        entityManager.flush();
+        entityManager.clear();
+        Team foundTeam = entityManager.find(Team.class, teamB.getId());
+        Member foundMember = entityManager.find(Member.class, member.getId());
+        foundTeam.getMembers().size();
+
+        foundMember.changeTeam(foundTeam);
+
+        assertThat(foundTeam.getMembers()).containsExactly(foundMember);
+    }
+}
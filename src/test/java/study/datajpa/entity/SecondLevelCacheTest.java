@@ -0,0 +1,111 @@
+package study.datajpa.entity;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 2차 캐시는 트랜잭션이 커밋되어야 저장되므로 @Transactional을 사용하지 않는다.
+ * -> 다른 테스트에 영향을 주지 않도록 저장한 데이터는 직접 삭제한다.
+ * */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Statistics statistics;
+    private Team team;
+    private Member member;
+
+    @BeforeEach
+    public void setUp() {
+        team = teamRepository.save(new Team("cacheTeam"));
+        member = memberRepository.save(new Member("cacheMember", 10, team));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        memberRepository.deleteById(member.getId());
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void entityCache() {
+        // when
+        teamRepository.findById(team.getId());
+        teamRepository.findById(team.getId());
+
+        // then
+        // 트랜잭션(영속성 컨텍스트)이 다르지만, 2차 캐시에서 조회하기 때문에 SELECT 쿼리가 나가지 않는다.
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void queryCache() {
+        // when
+        memberRepository.findMemberByUsername("cacheMember");
+        memberRepository.findMemberByUsername("cacheMember");
+
+        // then
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    /*
+     * application.conf의 region별 설정이 Hibernate가 사용하는 캐시에 적용되었는지 확인한다.
+     * */
+    @Test
+    public void cacheRegionConfiguration() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+        CaffeineConfiguration<?, ?> team = configuration(cacheManager, "study.datajpa.entity.Team");
+        assertThat(team.getMaximumSize()).hasValue(1000);
+        assertThat(team.getExpireAfterWrite()).hasValue(TimeUnit.HOURS.toNanos(1));
+
+        CaffeineConfiguration<?, ?> members = configuration(cacheManager, "study.datajpa.entity.Team.members");
+        assertThat(members.getMaximumSize()).hasValue(1000);
+        assertThat(members.getExpireAfterWrite()).hasValue(TimeUnit.MINUTES.toNanos(10));
+
+        CaffeineConfiguration<?, ?> member = configuration(cacheManager, "study.datajpa.entity.Member");
+        assertThat(member.getMaximumSize()).hasValue(10000);
+
+        // 테이블별 변경 시각은 만료되거나 밀려나면 안된다.
+        CaffeineConfiguration<?, ?> timestamps = configuration(cacheManager, "default-update-timestamps-region");
+        assertThat(timestamps.getMaximumSize()).isEmpty();
+        assertThat(timestamps.getExpireAfterWrite()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private CaffeineConfiguration<?, ?> configuration(CacheManager cacheManager, String cacheName) {
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        assertThat(cache).as(cacheName).isNotNull();
+        return cache.getConfiguration(CaffeineConfiguration.class);
+    }
+}
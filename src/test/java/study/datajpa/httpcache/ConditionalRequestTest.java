@@ -0,0 +1,188 @@
+package study.datajpa.httpcache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.service.MemberService;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ * 테이블 버전은 커밋된 후에 올라가므로 @Transactional을 사용하지 않는다.
+ * -> 다른 테스트에 영향을 주지 않도록 저장한 데이터는 직접 삭제한다.
+ * */
+@SpringBootTest
+class ConditionalRequestTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private TableVersionRegistry tableVersionRegistry;
+
+    @Autowired
+    private VersionedResponseCache<String, Page<MemberDto>> memberPageCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+    private Member member;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        member = memberRepository.save(new Member("etagMember", 10));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    public void memberNotModified() throws Exception {
+        // given
+        String etag = mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when, then
+        mockMvc.perform(get("/members/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/members2/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // 변경되면 version이 바뀌므로 다시 응답한다.
+        memberService.changeUsername(member.getId(), "etagMember2");
+        String newEtag = mockMvc.perform(get("/members/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void memberListNotModifiedUntilTableChanges() throws Exception {
+        // given
+        String etag = mockMvc.perform(get("/members").param("page", "0").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/members").param("page", "0").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // when
+        Team team = teamRepository.save(new Team("etagTeam"));
+
+        // then
+        try {
+            String newEtag = mockMvc.perform(get("/members").param("page", "0").param("size", "5")
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(newEtag).isNotEqualTo(etag);
+        } finally {
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    public void pageCacheIsReusedUntilTableChanges() throws Exception {
+        // given
+        mockMvc.perform(get("/members").param("page", "0").param("size", "7")).andExpect(status().isOk());
+        long hits = memberPageCache.getHits();
+
+        // when
+        mockMvc.perform(get("/members").param("page", "0").param("size", "7")).andExpect(status().isOk());
+
+        // then
+        assertThat(memberPageCache.getHits()).isEqualTo(hits + 1);
+
+        memberService.changeUsername(member.getId(), "etagMember3");
+        mockMvc.perform(get("/members").param("page", "0").param("size", "7")).andExpect(status().isOk());
+        assertThat(memberPageCache.getHits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void rollbackDoesNotChangeVersion() {
+        // given
+        long version = tableVersionRegistry.version("member");
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.findById(member.getId()).get().changeUsername("rollback");
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(tableVersionRegistry.version("member")).isEqualTo(version);
+    }
+
+    @Test
+    public void versionTagChangesAfterMaxAge() throws Exception {
+        // given
+        TableVersionRegistry registry = new TableVersionRegistry(Duration.ofMillis(50));
+        String tag = registry.versionTag("member");
+
+        // when: 다른 서버, JdbcTemplate 변경처럼 버전이 올라가지 않아도
+        Thread.sleep(100);
+
+        // then
+        assertThat(registry.versionTag("member")).isNotEqualTo(tag);
+    }
+
+    @Test
+    public void changedWithin() {
+        // given
+        TableVersionRegistry registry = new TableVersionRegistry(Duration.ZERO);
+        assertThat(registry.changedWithin(Duration.ofSeconds(5), "member", "team")).isFalse();
+
+        // when
+        registry.increment(Collections.singleton("TEAM"));
+
+        // then
+        assertThat(registry.changedWithin(Duration.ofSeconds(5), "member", "team")).isTrue();
+        assertThat(registry.changedWithin(Duration.ZERO, "member", "team")).isFalse();
+        assertThat(registry.versionTag("member", "team")).endsWith("-0.1");
+    }
+
+    @Test
+    public void writtenTable() {
+        assertThat(TableChangeInspector.writtenTable("/* update study.datajpa.entity.Member */ update member set username=? where member_id=?"))
+                .isEqualTo("member");
+        assertThat(TableChangeInspector.writtenTable("insert into team (name, team_id) values (?, ?)")).isEqualTo("team");
+        assertThat(TableChangeInspector.writtenTable("delete from PUBLIC.\"MEMBER\" where member_id=?")).isEqualTo("MEMBER");
+        assertThat(TableChangeInspector.writtenTable("select m.member_id from member m for update")).isNull();
+    }
+}
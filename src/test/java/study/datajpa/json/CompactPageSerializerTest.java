@@ -0,0 +1,56 @@
+package study.datajpa.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.CompactPage;
+import study.datajpa.dto.MemberDto;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactPageSerializerTest {
+
+    private final ObjectMapper defaultMapper = new ObjectMapper();
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(new MemberDtoSerializer())
+            .addSerializer(new CompactPageSerializer()));
+
+    private final Page<MemberDto> page = new PageImpl<>(
+            Arrays.asList(new MemberDto(1L, "member1", "teamA"), new MemberDto(2L, "member\"2", null)),
+            PageRequest.of(1, 2, Sort.by("username")), 5);
+
+    @Test
+    public void memberDtoSameAsDefault() throws Exception {
+        // 기존 응답(/members, /members/export)의 JSON이 바뀌면 안된다.
+        for (MemberDto member : page.getContent()) {
+            assertThat(mapper.writeValueAsString(member)).isEqualTo(defaultMapper.writeValueAsString(member));
+        }
+        assertThat(mapper.writeValueAsString(new MemberDto(null, null, null)))
+                .isEqualTo(defaultMapper.writeValueAsString(new MemberDto(null, null, null)));
+    }
+
+    @Test
+    public void compactPage() throws Exception {
+        // when
+        String json = mapper.writeValueAsString(CompactPage.of(page));
+
+        // then
+        JsonNode node = mapper.readTree(json);
+        assertThat(node.fieldNames()).toIterable().containsExactly("content", "page", "size", "totalElements", "totalPages");
+        assertThat(node.get("content")).isEqualTo(mapper.readTree(defaultMapper.writeValueAsString(page.getContent())));
+        assertThat(node.get("page").asInt()).isEqualTo(1);
+        assertThat(node.get("size").asInt()).isEqualTo(2);
+        assertThat(node.get("totalElements").asLong()).isEqualTo(5);
+        assertThat(node.get("totalPages").asInt()).isEqualTo(3);
+
+        // pageable, sort 같은 메타데이터가 없으므로 Page를 그대로 응답할 때보다 작다.
+        assertThat(json.length()).isLessThan(defaultMapper.writeValueAsString(page).length());
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.monitoring;
+
+/*
+ * < SQL 실행 횟수 검증 >
+ *
+ * QueryCounter.reset();
+ * ... 검증할 코드 ...
+ * assertQueryCount(2);
+ *
+ * 주의) 영속성 컨텍스트에 쌓여있던 INSERT/UPDATE도 같이 집계되므로, reset() 전에 flush() 해두자.
+ * */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void assertQueryCount(int expected) {
+        QueryCount queryCount = QueryCounter.current();
+        if (queryCount.getTotal() != expected) {
+            throw new AssertionError("실행된 SQL 수가 다릅니다. expected: " + expected + ", actual: " + queryCount);
+        }
+    }
+
+    public static void assertQueryCountAtMost(int max) {
+        QueryCount queryCount = QueryCounter.current();
+        if (queryCount.getTotal() > max) {
+            throw new AssertionError("실행된 SQL 수가 " + max + "건을 초과했습니다. actual: " + queryCount);
+        }
+    }
+}
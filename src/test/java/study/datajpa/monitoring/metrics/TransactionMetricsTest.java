@@ -0,0 +1,63 @@
+package study.datajpa.monitoring.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransactionMetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    public void transactionTimers() {
+        // given
+        long commits = timerCount("datajpa.transaction.commit");
+        long rollbacks = timerCount("datajpa.transaction.rollback");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // when
+        transaction.execute(status -> memberRepository.count());
+        transaction.execute(status -> {
+            status.setRollbackOnly();
+            return null;
+        });
+
+        // then
+        assertThat(transactionManager).isInstanceOf(TimedJpaTransactionManager.class);
+        assertThat(timerCount("datajpa.transaction.commit")).isEqualTo(commits + 1);
+        assertThat(timerCount("datajpa.transaction.rollback")).isEqualTo(rollbacks + 1);
+    }
+
+    @Test
+    public void repositoryInvocationTimer() {
+        // when
+        memberRepository.count();
+
+        // then
+        Timer timer = meterRegistry.find("datajpa.repository.invocation")
+                .tags("repository", "MemberRepository", "method", "count", "outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThan(0);
+    }
+
+    private long timerCount(String name) {
+        Timer timer = meterRegistry.find(name).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
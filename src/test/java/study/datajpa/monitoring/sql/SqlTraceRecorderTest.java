@@ -0,0 +1,133 @@
+package study.datajpa.monitoring.sql;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class SqlTraceRecorderTest {
+
+    private static final long MILLISECOND = Duration.ofMillis(1).toNanos();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SqlTraceRecorder sqlTraceRecorder;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void recordByRepositoryMethod() {
+        // given
+        memberRepository.save(new Member("traced", 10));
+        entityManager.flush();
+        sqlTraceRecorder.reset();
+
+        // when
+        memberRepository.findMembersByUsername("traced");
+
+        // then
+        Map<String, Object> statistics = (Map<String, Object>) sqlTraceRecorder.snapshot()
+                .get("MemberRepository.findMembersByUsername");
+
+        assertThat(statistics.get("executions")).isEqualTo(1L);
+        assertThat(statistics.get("rows")).isEqualTo(1L);
+    }
+
+    @Test
+    public void sampleRateZeroLogsNothing() {
+        // given
+        SqlTraceRecorder recorder = recorder(0.0, Duration.ofSeconds(1));
+
+        // when
+        List<ILoggingEvent> events = capture(() -> {
+            for (int i = 0; i < 100; i++) {
+                recorder.recordExecution("select 1", new Object[] { i }, MILLISECOND, 1, true);
+            }
+        });
+
+        // then
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    public void sampleRateOneLogsEverySql() {
+        // given
+        SqlTraceRecorder recorder = recorder(1.0, Duration.ofSeconds(1));
+
+        // when
+        List<ILoggingEvent> events = capture(() -> {
+            recorder.recordExecution("select 1", new Object[] { "a" }, MILLISECOND, 1, true);
+            recorder.recordExecution("select 2", new Object[] { "b" }, MILLISECOND, 1, true);
+        });
+
+        // then
+        assertThat(events).hasSize(2);
+        assertThat(events).allSatisfy(event -> assertThat(event.getLevel()).isEqualTo(Level.INFO));
+        assertThat(events.get(0).getFormattedMessage()).startsWith("[sampled sql]").contains("select 1", "[a]");
+        assertThat(events.get(1).getFormattedMessage()).contains("select 2", "[b]");
+    }
+
+    @Test
+    public void slowSqlIsLoggedRegardlessOfSampling() {
+        // given
+        SqlTraceRecorder recorder = recorder(0.0, Duration.ofMillis(200));
+
+        // when
+        List<ILoggingEvent> events = capture(() -> {
+            recorder.recordExecution("select fast", null, Duration.ofMillis(199).toNanos(), 1, true);
+            recorder.recordExecution("select slow", new Object[] { 1 }, Duration.ofMillis(200).toNanos(), 1, true);
+        });
+
+        // then
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getLevel()).isEqualTo(Level.WARN);
+        assertThat(events.get(0).getFormattedMessage()).startsWith("[slow sql] 200ms").contains("select slow", "[1]");
+    }
+
+    private static SqlTraceRecorder recorder(double sampleRate, Duration slowThreshold) {
+        SqlTracingProperties properties = new SqlTracingProperties();
+        properties.setSampleRate(sampleRate);
+        properties.setSlowThreshold(slowThreshold);
+        return new SqlTraceRecorder(properties);
+    }
+
+    /*
+     * SqlTraceRecorder의 로그를 모아서 반환한다.
+     * */
+    private static List<ILoggingEvent> capture(Runnable work) {
+        Logger logger = (Logger) LoggerFactory.getLogger(SqlTraceRecorder.class);
+        Level level = logger.getLevel();
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.INFO);
+        try {
+            work.run();
+            return appender.list;
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(level);
+        }
+    }
+}
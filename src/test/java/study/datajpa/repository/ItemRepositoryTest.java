@@ -3,20 +3,114 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 class ItemRepositoryTest {
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     public void save() {
         Item item = new Item("A");
         itemRepository.save(item);
     }
 
-}
\ No newline at end of file
+    @Test
+    @Transactional
+    public void isNew() {
+        Item item = new Item("isNew");
+        assertThat(item.isNew()).isTrue();
+
+        itemRepository.save(item);
+        assertThat(item.isNew()).isFalse();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Item findItem = itemRepository.findById("isNew").get();
+        assertThat(findItem.isNew()).isFalse();
+    }
+
+    @Test
+    @Transactional
+    public void insertAll() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            items.add(new Item("insertAll" + i));
+        }
+
+        int insertedCount = itemRepository.insertAll(items, 10);
+
+        assertThat(insertedCount).isEqualTo(25);
+        assertThat(itemRepository.findById("insertAll24")).isPresent();
+    }
+
+    @Test
+    @Transactional
+    public void insertIgnoreAll() {
+        itemRepository.insertAll(Arrays.asList(new Item("ignore1"), new Item("ignore2")), 10);
+
+        int insertedCount = itemRepository.insertIgnoreAll(
+                Arrays.asList(new Item("ignore1"), new Item("ignore2"), new Item("ignore3")), 2);
+
+        assertThat(insertedCount).isEqualTo(1);
+        assertThat(itemRepository.findById("ignore3")).isPresent();
+        assertThat(itemRepository.findById("ignore3").get().getCreatedDate()).isNotNull();
+    }
+
+    @Test
+    @Transactional
+    public void insertIgnoreAllFlushesPersistedItems() {
+        // given: persist 했지만 아직 flush 하지 않은 Item
+        entityManager.persist(new Item("pending1"));
+
+        // when
+        int insertedCount = itemRepository.insertIgnoreAll(
+                Arrays.asList(new Item("pending1"), new Item("pending2")), 10);
+
+        // then
+        assertThat(insertedCount).isEqualTo(1);
+        entityManager.clear();
+        assertThat(itemRepository.findAllById(Arrays.asList("pending1", "pending2"))).hasSize(2);
+    }
+
+    @Test
+    public void insertIgnoreSqlByDatabase() {
+        assertThat(ItemRepositoryImpl.insertIgnoreSql("H2")).startsWith("merge into item using");
+        assertThat(ItemRepositoryImpl.insertIgnoreSql("MySQL")).startsWith("insert ignore into item");
+        assertThat(ItemRepositoryImpl.insertIgnoreSql("PostgreSQL")).endsWith("on conflict (id) do nothing");
+        assertThat(ItemRepositoryImpl.insertIgnoreSql("Oracle")).endsWith("where not exists (select 1 from item where id = ?)");
+    }
+
+    @Test
+    @Transactional
+    public void portableInsertIgnoreSql() {
+        // 전용 문법이 없는 Database에서 사용하는 SQL (H2도 dual을 지원한다.)
+        String sql = ItemRepositoryImpl.insertIgnoreSql("Oracle");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        assertThat(jdbcTemplate.update(sql, "portable1", now, now, "portable1")).isEqualTo(1);
+        assertThat(jdbcTemplate.update(sql, "portable1", now, now, "portable1")).isEqualTo(0);
+    }
+}
@@ -0,0 +1,96 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberQueryRepositoryTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MemberQueryRepository memberQueryRepository;
+
+    @BeforeEach
+    public void setUp() {
+        Team teamA = new Team("searchTeamA");
+        Team teamB = new Team("searchTeamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        entityManager.persist(new Member("searchMember1", 510, teamA));
+        entityManager.persist(new Member("searchMember2", 520, teamA));
+        entityManager.persist(new Member("searchMember3", 530, teamB));
+        entityManager.persist(new Member("searchMember4", 540));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void searchByAgeRange() {
+        // given
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(520);
+        condition.setAgeLoe(540);
+
+        // when
+        Page<Member> page = memberQueryRepository.search(condition, PageRequest.of(0, 2, Sort.by("age")));
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting("username").containsExactly("searchMember2", "searchMember3");
+    }
+
+    @Test
+    public void searchByTeamNameWithoutFetch() {
+        // given
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("searchTeamA");
+        condition.setAgeGoe(500);
+
+        // when
+        Page<Member> page = memberQueryRepository.search(condition, PageRequest.of(0, 10, Sort.by("username")));
+
+        // then
+        assertThat(page.getContent()).extracting("username").containsExactly("searchMember1", "searchMember2");
+        // 팀 이름으로 검색만 하고, 팀은 조회하지 않는다.
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        assertThat(persistenceUnitUtil.isLoaded(page.getContent().get(0).getTeam())).isFalse();
+    }
+
+    @Test
+    public void searchWithFetchTeam() {
+        // given
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(500);
+        condition.setFetchTeam(true);
+
+        // when
+        Page<Member> page = memberQueryRepository.search(condition, PageRequest.of(0, 10, Sort.by("username")));
+
+        // then
+        // 팀이 없는 회원도 조회된다. (left fetch join)
+        assertThat(page.getContent()).hasSize(4);
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        assertThat(persistenceUnitUtil.isLoaded(page.getContent().get(0).getTeam())).isTrue();
+        assertThat(page.getContent().get(3).getTeam()).isNull();
+    }
+}
@@ -1,5 +1,6 @@
 package study.datajpa.repository;
 
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,13 +12,20 @@ import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.monitoring.QueryCounter;
+import study.datajpa.repository.count.CachedCountStrategy;
+import study.datajpa.repository.count.CountMode;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static study.datajpa.monitoring.QueryCountAssertions.assertQueryCount;
 
 @SpringBootTest
 @Transactional
@@ -32,6 +40,9 @@ class MemberRepositoryTest {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private CachedCountStrategy cachedCountStrategy;
+
     @Test
     public void testMember() {
         Member member = new Member("memberA");
@@ -205,6 +216,34 @@ class MemberRepositoryTest {
         assertThat(memberDtos.hasNext()).isTrue(); // 다음 페이지가 있나?
     }
 
+    @Test
+    public void pagingWithCachedCount() {
+        // given
+        cachedCountStrategy.invalidateAll();
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("member" + i, 77));
+        }
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username"));
+
+        // when
+        Page<Member> page = memberRepository.findPageByAge(77, pageRequest, CountMode.CACHED);
+
+        // 같은 트랜잭션에서 Repository로 저장했으므로, 커밋 전까지는 캐시를 사용하지 않고 count 쿼리를 실행한다.
+        // -> 캐시는 커밋된 후에 무효화된다. (CachedCountStrategyTest)
+        entityManager.persist(new Member("member5", 77));
+        Page<Member> uncachedPage = memberRepository.findPageByAge(77, pageRequest, CountMode.CACHED);
+
+        memberRepository.save(new Member("member6", 77));
+        Page<Member> invalidatedPage = memberRepository.findPageByAge(77, pageRequest, CountMode.CACHED);
+
+        // then
+        assertThat(page.getContent().size()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(uncachedPage.getTotalElements()).isEqualTo(6);
+        assertThat(invalidatedPage.getTotalElements()).isEqualTo(7);
+    }
+
     @Test
     public void slice() {
         // given
@@ -233,6 +272,37 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue(); // 다음 페이지가 있나?
     }
 
+    @Test
+    public void keysetPaging() {
+        // given
+        memberRepository.save(new Member("keyset3", 10));
+        memberRepository.save(new Member("keyset1", 10));
+        memberRepository.save(new Member("keyset2", 10));
+        memberRepository.save(new Member("keyset2", 20));
+        memberRepository.save(new Member("keyset4", 10));
+
+        // when
+        // nextCursor가 null이 될 때까지 다음 페이지를 조회한다.
+        List<Member> members = new ArrayList<>();
+        KeysetWindow<Member> window = memberRepository.findWindowByUsername(null, 2);
+        members.addAll(window.getContent());
+
+        while (window.hasNext()) {
+            window = memberRepository.findWindowByUsername(window.getNextCursor(), 2);
+            members.addAll(window.getContent());
+        }
+
+        // then
+        List<String> keysetUsernames = members.stream()
+                .map(Member::getUsername)
+                .filter(username -> username.startsWith("keyset"))
+                .collect(Collectors.toList());
+
+        assertThat(members.size()).isEqualTo(memberRepository.count());
+        assertThat(members).extracting(Member::getUsername).isSorted();
+        assertThat(keysetUsernames).containsExactly("keyset1", "keyset2", "keyset2", "keyset3", "keyset4");
+    }
+
     @Test
     public void blukUpdate() {
         // given
@@ -273,6 +343,47 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    public void saveAllBatched() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("batch" + i, 50));
+        }
+
+        // when
+        int savedCount = memberRepository.saveAllBatched(members, 10);
+
+        // then
+        // batchSize 마다 clear 되었기 때문에 영속성 컨텍스트에 남아있지 않다.
+        assertThat(savedCount).isEqualTo(25);
+        assertThat(entityManager.contains(members.get(0))).isFalse();
+        assertThat(members).allMatch(member -> member.getId() != null);
+        assertThat(memberRepository.findSliceByAge(50, PageRequest.of(0, 30)).getContent().size()).isEqualTo(25);
+    }
+
+    @Test
+    public void stream() {
+        // given
+        memberRepository.save(new Member("stream1", 10));
+        memberRepository.save(new Member("stream2", 10));
+        long totalCount = memberRepository.count();
+
+        // when
+        long streamCount;
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            streamCount = members.count();
+        }
+
+        List<String> scrolledUsernames = new ArrayList<>();
+        long scrollCount = memberRepository.scrollAll(1, 1, member -> scrolledUsernames.add(member.getUsername()));
+
+        // then
+        assertThat(streamCount).isEqualTo(totalCount);
+        assertThat(scrollCount).isEqualTo(totalCount);
+        assertThat(scrolledUsernames).contains("stream1", "stream2");
+    }
+
     @Test
     public void findMemberLazy() {
         // given
@@ -302,6 +413,45 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void queryCount() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamB));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        // when - fetch join
+        QueryCounter.reset();
+        for (Member member : memberRepository.findMembersFetchJoin()) {
+            member.getTeam().getName();
+        }
+
+        // then - Member 조회 쿼리 1번
+        assertQueryCount(1);
+
+        entityManager.clear();
+
+        // when - 지연 로딩
+        QueryCounter.reset();
+        for (Member member : memberRepository.findMemberCustom()) {
+            if (member.getTeam() != null) {
+                member.getTeam().getName();
+            }
+        }
+
+        // then - Member 조회 쿼리 1번 + Team을 조회하는 쿼리 (batch fetch가 없으면 Team 수 만큼, N+1)
+        assertThat(QueryCounter.current().getTotal()).isGreaterThan(1);
+        assertThat(QueryCounter.current().getCountByInvocation())
+                .containsKey("MemberRepository.findMemberCustom -> 지연 로딩");
+    }
+
     @Test
     public void queryHint() {
         // given
@@ -357,6 +507,59 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void projectionsWithoutEntity() {
+        // given
+        Team teamA = new Team("A");
+        entityManager.persist(teamA);
+
+        entityManager.persist(new Member("projectionMember1", 0, teamA));
+        entityManager.persist(new Member("projectionMember2", 0));
+
+        entityManager.flush();
+        entityManager.clear();
+        QueryCounter.reset();
+
+        // when
+        List<NestedClosedProjections> withTeam = memberRepository.findProjectedByUsername("projectionMember1", NestedClosedProjections.class);
+        List<NestedClosedProjections> withoutTeam = memberRepository.findProjectedByUsername("projectionMember2", NestedClosedProjections.class);
+        List<MemberDto> memberDtos = memberRepository.findProjectedByUsername("projectionMember1", MemberDto.class);
+
+        // then
+        assertThat(withTeam.get(0).getUsername()).isEqualTo("projectionMember1");
+        assertThat(withTeam.get(0).getTeam().getName()).isEqualTo("A");
+        assertThat(withoutTeam.get(0).getTeam()).isNull();
+
+        assertThat(memberDtos.get(0).getMemberId()).isNotNull();
+        assertThat(memberDtos.get(0).getUsername()).isEqualTo("projectionMember1");
+        assertThat(memberDtos.get(0).getTeamName()).isEqualTo("A");
+
+        // 조회마다 SQL 1번, 영속성 컨텍스트에는 엔티티가 하나도 없다.
+        assertQueryCount(3);
+        assertThat(entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities()).isEqualTo(0);
+    }
+
+    @Test
+    public void noUpdateWhenNothingChanged() {
+        // given
+        Member member = new Member("auditMember");
+        entityManager.persist(member);
+        entityManager.flush();
+        entityManager.clear();
+
+        Member findMember = entityManager.find(Member.class, member.getId());
+        LocalDateTime lastModifiedDate = findMember.getLastModifiedDate();
+        QueryCounter.reset();
+
+        // when
+        // 변경된 필드가 없으면 @PreUpdate(AuditingEntityListener)가 호출되지 않으므로, lastModifiedDate만 바꾸는 UPDATE도 나가지 않는다.
+        entityManager.flush();
+
+        // then
+        assertQueryCount(0);
+        assertThat(findMember.getLastModifiedDate()).isEqualTo(lastModifiedDate);
+    }
+
     /**
      * Dirty Checking 테스트
      */
@@ -404,4 +607,58 @@ class MemberRepositoryTest {
         entityManager.flush();
         entityManager.clear();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void usernameIgnoringCase() {
+        // given
+        memberRepository.save(new Member("IndexUser", 10));
+        memberRepository.save(new Member("indexUser2", 20));
+        memberRepository.save(new Member("otherUser", 30));
+
+        // when
+        List<Member> exact = memberRepository.findByUsernameIgnoringCase("INDEXUSER");
+        List<Member> prefix = memberRepository.findByUsernameStartingWithIgnoringCase("Index", PageRequest.of(0, 10, Sort.by("username")));
+
+        // then
+        assertThat(exact).extracting(Member::getUsername).containsExactly("IndexUser");
+        assertThat(prefix).extracting(Member::getUsername).containsExactly("IndexUser", "indexUser2");
+
+        // username을 변경하면 normalizedUsername도 같이 변경된다.
+        exact.get(0).changeUsername("Renamed");
+        entityManager.flush();
+        assertThat(memberRepository.findByUsernameIgnoringCase("renamed")).hasSize(1);
+        assertThat(memberRepository.findByUsernameIgnoringCase("indexuser")).isEmpty();
+    }
+
+    @Test
+    public void usernameStartingWithEscapesWildcards() {
+        // given
+        memberRepository.save(new Member("pre_fix", 10));
+        memberRepository.save(new Member("preXfix", 10));
+
+        // when
+        List<Member> members = memberRepository.findByUsernameStartingWith("pre_", PageRequest.of(0, 10));
+
+        // then
+        assertThat(members).extracting(Member::getUsername).containsExactly("pre_fix");
+    }
+
+    /*
+     * H2의 EXPLAIN 결과에 사용한 인덱스 이름이 나온다. ex) PUBLIC.IDX_MEMBER_NORMALIZED_USERNAME: NORMALIZED_USERNAME = 'a'
+     * */
+    @Test
+    public void usernameQueriesUseIndexes() {
+        assertThat(explain("select * from member where username = 'a'")).contains("IDX_MEMBER_USERNAME_ID");
+        assertThat(explain("select * from member where username like 'a%'")).contains("IDX_MEMBER_USERNAME_ID");
+        assertThat(explain("select * from member where normalized_username = 'a'")).contains("IDX_MEMBER_NORMALIZED_USERNAME");
+        assertThat(explain("select * from member where age = 10 order by username")).contains("IDX_MEMBER_AGE_USERNAME");
+        assertThat(explain("select * from member where team_id = 1")).contains("IDX_MEMBER_TEAM_ID");
+
+        // 컬럼에 함수를 적용하면 인덱스를 사용하지 못한다.
+        assertThat(explain("select * from member where lower(username) = 'a'")).doesNotContain("IDX_MEMBER_USERNAME_ID");
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("explain " + sql).getSingleResult()).toUpperCase();
+    }
+}
@@ -0,0 +1,83 @@
+package study.datajpa.repository;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.monitoring.QueryCounter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.datajpa.monitoring.QueryCountAssertions.assertQueryCountAtMost;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    public void findPageWithMembers() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("batchTeam" + i);
+            entityManager.persist(team);
+            entityManager.persist(new Member("batchMember" + i + "-1", 10, team));
+            entityManager.persist(new Member("batchMember" + i + "-2", 10, team));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        QueryCounter.reset();
+
+        // when
+        // batchSize = 3 -> 팀 조회 + members 조회 2번 (3개, 2개) + count
+        Page<Team> page = teamRepository.findPageWithMembers(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")), 3);
+
+        // then
+        assertThat(page.getContent()).hasSize(5);
+        for (Team team : page.getContent()) {
+            assertThat(Hibernate.isInitialized(team.getMembers())).isTrue();
+            assertThat(team.getMembers()).hasSize(2);
+        }
+        // 컬렉션을 사용해도 추가 쿼리가 없다.
+        assertQueryCountAtMost(4);
+    }
+
+    @Test
+    public void findPageWithTeam() {
+        // given
+        for (int i = 0; i < 4; i++) {
+            Team team = new Team("batchTeam" + i);
+            entityManager.persist(team);
+            entityManager.persist(new Member("batchMember" + i, 620, team));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        QueryCounter.reset();
+
+        // when
+        Page<Member> page = memberRepository.findPageWithTeam(PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "id")), 10);
+
+        // then
+        for (Member member : page.getContent()) {
+            assertThat(member.getTeam().getName()).startsWith("batchTeam");
+        }
+        // 회원 조회 + 팀 조회(IN 절 1번) + count
+        assertQueryCountAtMost(3);
+    }
+}
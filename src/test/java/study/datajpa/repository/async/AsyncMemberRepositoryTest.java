@@ -0,0 +1,94 @@
+package study.datajpa.repository.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.monitoring.QueryCount;
+import study.datajpa.monitoring.QueryCounter;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 다른 스레드에서 조회하기 때문에 테스트 데이터를 커밋해야 한다. (@Transactional을 사용하지 않는다.)
+ * -> 다른 테스트에 영향을 주지 않도록 저장한 데이터는 직접 삭제한다.
+ * */
+@SpringBootTest
+class AsyncMemberRepositoryTest {
+
+    @Autowired
+    private AsyncMemberRepository asyncMemberRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private Team team;
+    private Member member;
+
+    @BeforeEach
+    public void setUp() {
+        team = teamRepository.save(new Team("asyncTeam"));
+        member = memberRepository.save(new Member("asyncMember", 10, team));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        memberRepository.deleteById(member.getId());
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void findById() {
+        // when
+        Optional<MemberDto> result = asyncMemberRepository.findById(member.getId()).join();
+
+        // then
+        // 지연 로딩(팀 이름)은 Executor의 읽기 전용 트랜잭션 안에서 끝난다.
+        assertThat(result).isPresent();
+        assertThat(result.get().getUsername()).isEqualTo("asyncMember");
+        assertThat(result.get().getTeamName()).isEqualTo("asyncTeam");
+    }
+
+    @Test
+    public void supplyRunsOnExecutorThread() {
+        // given
+        Thread caller = Thread.currentThread();
+
+        // when
+        Thread worker = asyncMemberRepository.supply(Thread::currentThread).join();
+
+        // then
+        assertThat(worker).isNotSameAs(caller);
+    }
+
+    @Test
+    public void applicationTaskExecutorIsNotSuppressed() {
+        // RepositoryExecutor Bean이 있어도 Spring Boot가 MVC 비동기 처리에 사용할 applicationTaskExecutor를 만든다.
+        ThreadPoolTaskExecutor taskExecutor = applicationContext.getBean(
+                TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, ThreadPoolTaskExecutor.class);
+
+        // 실행하는 스레드에도 요청의 QueryCount가 전달된다.
+        QueryCounter.reset();
+        QueryCount caller = QueryCounter.current();
+        QueryCount worker = CompletableFuture.supplyAsync(QueryCounter::current, taskExecutor).join();
+        assertThat(worker).isSameAs(caller);
+    }
+}
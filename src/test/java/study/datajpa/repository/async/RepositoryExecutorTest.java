@@ -0,0 +1,56 @@
+package study.datajpa.repository.async;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryExecutorTest {
+
+    /*
+     * 가상 스레드를 사용할 수 없는 JDK(21 미만)에서는 플랫폼 스레드로 동작하지만, 결과는 같아야 한다.
+     * */
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    public void rejectWhenQueueIsFull(boolean useVirtualThreads) throws Exception {
+        // given
+        RepositoryExecutor executor = new RepositoryExecutor(1, 1, useVirtualThreads);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+
+        try {
+            // when
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+                finished.countDown();
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(finished::countDown);
+
+            // then
+            // 1개 실행 중 + 1개 대기 중이므로, 세 번째 호출은 거절된다.
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(RepositoryBusyException.class);
+
+            release.countDown();
+            assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package study.datajpa.repository.bulk;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * 청크마다 별도의 트랜잭션으로 커밋하므로 @Transactional을 사용하지 않는다.
+ * -> 다른 테스트에 영향을 주지 않도록 저장한 데이터는 직접 삭제한다.
+ * */
+@SpringBootTest
+class ChunkedBulkUpdaterTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ChunkedBulkUpdater chunkedBulkUpdater;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Member> members;
+    private Member untouched;
+
+    @BeforeEach
+    public void setUp() {
+        members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("chunkMember" + i, 300 + i));
+        }
+        members = memberRepository.saveAll(members);
+        untouched = memberRepository.save(new Member("chunkUntouched", 299));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        memberRepository.deleteAll(members);
+        memberRepository.delete(untouched);
+    }
+
+    @Test
+    public void execute() {
+        // given
+        List<BulkUpdateProgress> progresses = Collections.synchronizedList(new ArrayList<>());
+        ChunkedBulkUpdate update = ChunkedBulkUpdate.of(Member.class, "age = age + 1", "age >= :age")
+                .parameter("age", 300)
+                .chunkSize(5)
+                .parallelism(2)
+                .progressListener(progresses::add);
+
+        // when
+        long updatedRows = chunkedBulkUpdater.execute(update);
+
+        // then
+        assertThat(updatedRows).isEqualTo(25);
+        assertThat(progresses).isNotEmpty();
+        assertThat(progresses.stream().mapToLong(BulkUpdateProgress::getCompletedChunks).max().getAsLong())
+                .isEqualTo(progresses.get(0).getTotalChunks());
+        assertThat(progresses.stream().mapToLong(BulkUpdateProgress::getUpdatedRows).max().getAsLong())
+                .isEqualTo(25);
+
+        List<Integer> ages = memberRepository.findAllById(members.stream().map(Member::getId).collect(Collectors.toList()))
+                .stream()
+                .map(Member::getAge)
+                .sorted()
+                .collect(Collectors.toList());
+        assertThat(ages).first().isEqualTo(301);
+        assertThat(ages).last().isEqualTo(325);
+        assertThat(memberRepository.findById(untouched.getId()).get().getAge()).isEqualTo(299);
+    }
+
+    @Test
+    public void evictOnlyUpdatedEntities() {
+        // given
+        // 2차 캐시에 올려둔다.
+        memberRepository.findById(members.get(0).getId());
+        memberRepository.findById(untouched.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        chunkedBulkUpdater.execute(ChunkedBulkUpdate.of(Member.class, "age = age + 1", "age >= :age")
+                .parameter("age", 300)
+                .chunkSize(5));
+
+        // then
+        // 변경된 Member는 2차 캐시에서 제거되어 DB에서 다시 조회한다.
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(301);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(0);
+
+        // 변경되지 않은 Member는 2차 캐시에 그대로 남아있다.
+        assertThat(memberRepository.findById(untouched.getId()).get().getAge()).isEqualTo(299);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectReadWriteTransaction() {
+        // given
+        ChunkedBulkUpdate update = ChunkedBulkUpdate.of(Member.class, "age = age + 1", "age >= :age")
+                .parameter("age", 300);
+
+        // when & then
+        // 호출한 쪽의 변경이 사라지거나, 호출한 쪽이 잡은 row lock 때문에 deadlock 에 빠지지 않도록 거부한다.
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.findById(members.get(0).getId()).get().changeUsername("dirty");
+            chunkedBulkUpdater.execute(update);
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(300);
+    }
+
+    @Test
+    public void detachUpdatedEntitiesFromReadOnlyTransaction() {
+        // given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // when
+        int age = readOnly.execute(status -> {
+            memberRepository.findById(members.get(0).getId());
+            chunkedBulkUpdater.execute(ChunkedBulkUpdate.of(Member.class, "age = age + 1", "age >= :age")
+                    .parameter("age", 300)
+                    .chunkSize(5));
+            return memberRepository.findById(members.get(0).getId()).get().getAge();
+        });
+
+        // then
+        // 변경된 Member는 영속성 컨텍스트에서 제거되어 DB에서 다시 조회한다.
+        assertThat(age).isEqualTo(301);
+    }
+}
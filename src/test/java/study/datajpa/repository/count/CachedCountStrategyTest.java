@@ -0,0 +1,91 @@
+package study.datajpa.repository.count;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 공유하는 CachedCountStrategy Bean에 영향을 주지 않도록 테스트마다 새로 만든다.
+ * */
+@SpringBootTest
+class CachedCountStrategyTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CountStrategies countStrategies;
+
+    @Autowired
+    private ExactCountStrategy exactCountStrategy;
+
+    private CachedCountStrategy cachedCountStrategy;
+
+    @BeforeEach
+    public void setUp() {
+        cachedCountStrategy = new CachedCountStrategy(Duration.ofMinutes(1), 2);
+    }
+
+    @Test
+    public void invalidateAfterCommit() {
+        // given
+        cachedCountStrategy.count(Member.class, "key", () -> 1);
+
+        // when
+        long countInTransaction = new TransactionTemplate(transactionManager).execute(status -> {
+            cachedCountStrategy.invalidate(Member.class);
+            // 커밋 전에는 다른 트랜잭션에서 캐시된 count를 그대로 사용한다.
+            assertThat(cachedCountStrategy.isCached(Member.class, "key")).isTrue();
+            return cachedCountStrategy.count(Member.class, "key", () -> 2);
+        });
+
+        // then
+        assertThat(countInTransaction).isEqualTo(2);
+        assertThat(cachedCountStrategy.count(Member.class, "key", () -> 3)).isEqualTo(3);
+    }
+
+    @Test
+    public void rollbackDoesNotInvalidate() {
+        // given
+        cachedCountStrategy.count(Member.class, "key", () -> 1);
+
+        // when
+        long countInTransaction = new TransactionTemplate(transactionManager).execute(status -> {
+            cachedCountStrategy.invalidate(Member.class);
+            status.setRollbackOnly();
+            // 변경한 트랜잭션 안에서는 캐시를 사용하지 않는다.
+            return cachedCountStrategy.count(Member.class, "key", () -> 2);
+        });
+
+        // then
+        assertThat(countInTransaction).isEqualTo(2);
+        assertThat(cachedCountStrategy.count(Member.class, "key", () -> 3)).isEqualTo(1);
+    }
+
+    @Test
+    public void cacheSizeIsBounded() {
+        // when
+        cachedCountStrategy.count(Member.class, "findPageByAge:1", () -> 1);
+        cachedCountStrategy.count(Member.class, "findPageByAge:2", () -> 2);
+        cachedCountStrategy.count(Member.class, "findPageByAge:3", () -> 3);
+
+        // then
+        assertThat(cachedCountStrategy.isCached(Member.class, "findPageByAge:1")).isFalse();
+        assertThat(cachedCountStrategy.isCached(Member.class, "findPageByAge:2")).isTrue();
+        assertThat(cachedCountStrategy.isCached(Member.class, "findPageByAge:3")).isTrue();
+    }
+
+    @Test
+    public void estimatedCountIsExactWithWhereClause() {
+        assertThat(countStrategies.get(CountMode.ESTIMATED, true)).isSameAs(exactCountStrategy);
+        assertThat(countStrategies.get(CountMode.ESTIMATED, false)).isInstanceOf(EstimatedCountStrategy.class);
+    }
+}
@@ -0,0 +1,111 @@
+package study.datajpa.repository.count;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.monitoring.QueryCount;
+import study.datajpa.monitoring.QueryCounter;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ParallelPageExecutorTest {
+
+    @Autowired
+    private ParallelPageExecutor parallelPageExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    public void countOnAnotherThread() {
+        // given
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+
+        // when
+        Page<String> page = parallelPageExecutor.getPage(PageRequest.of(1, 2),
+                () -> Arrays.asList("c", "d"),
+                () -> {
+                    countThread.set(Thread.currentThread());
+                    return 10;
+                });
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(countThread.get()).isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    public void countNotNeededOnLastPage() {
+        // when
+        // 마지막 페이지는 컨텐츠만으로 전체 수를 알 수 있으므로, count 결과를 기다리지 않는다.
+        Page<String> page = parallelPageExecutor.getPage(PageRequest.of(1, 2),
+                () -> Collections.singletonList("c"),
+                () -> 100);
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    public void sequentialInReadWriteTransaction() {
+        // given
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // when
+        // 쓰기 트랜잭션 안에서는 커밋되지 않은 변경이 보여야 하므로, 같은 스레드(커넥션)에서 count 한다.
+        Thread caller = transaction.execute(status -> {
+            List<String> content = Arrays.asList("c", "d");
+            parallelPageExecutor.getPage(PageRequest.of(1, 2), () -> content, () -> {
+                countThread.set(Thread.currentThread());
+                return 10;
+            });
+            return Thread.currentThread();
+        });
+
+        // then
+        assertThat(countThread.get()).isSameAs(caller);
+    }
+
+    @Test
+    public void countQueryIsCountedForCaller() {
+        // given
+        QueryCounter.reset();
+        AtomicReference<QueryCount> countThreadQueryCount = new AtomicReference<>();
+
+        // when
+        // count 쿼리는 RepositoryExecutor의 스레드에서 실행되지만, 호출한 스레드의 QueryCount에 집계된다.
+        parallelPageExecutor.getPage(PageRequest.of(1, 2), () -> Arrays.asList("c", "d"), () -> {
+            countThreadQueryCount.set(QueryCounter.current());
+            return memberRepository.count();
+        });
+
+        // then
+        assertThat(countThreadQueryCount.get()).isSameAs(QueryCounter.current());
+        assertThat(QueryCounter.current().getTotal()).isEqualTo(1);
+
+        // 작업이 끝나면 작업 스레드에는 남지 않는다.
+        AtomicReference<QueryCount> nextTaskQueryCount = new AtomicReference<>();
+        QueryCounter.reset();
+        parallelPageExecutor.getPage(PageRequest.of(1, 2), () -> Arrays.asList("c", "d"), () -> {
+            nextTaskQueryCount.set(QueryCounter.current());
+            return 10;
+        });
+        assertThat(nextTaskQueryCount.get()).isNotSameAs(countThreadQueryCount.get());
+        QueryCounter.reset();
+    }
+}
@@ -0,0 +1,129 @@
+package study.datajpa.repository.readonly;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ReadOnlyQueryAspectTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionProbeRepository probeRepository;
+
+    /*
+     * 테스트용 Repository를 Bean으로 등록하지 않고, ReadOnlyQueryAspect를 적용한 프록시를 직접 만든다.
+     * */
+    @BeforeEach
+    public void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new TransactionProbeRepository());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ReadOnlyQueryAspect(context.getBeanProvider(PlatformTransactionManager.class)));
+        probeRepository = proxyFactory.getProxy();
+    }
+
+    @Test
+    public void queryMethodRunsReadOnlyOutsideTransaction() {
+        assertThat(probeRepository.findTransaction()).isEqualTo(TransactionState.READ_ONLY);
+        assertThat(probeRepository.countTransaction()).isEqualTo(TransactionState.READ_ONLY);
+        assertThat(probeRepository.loadTransaction()).isEqualTo(TransactionState.READ_ONLY);
+    }
+
+    @Test
+    public void otherMethodsAreNotReadOnly() {
+        assertThat(probeRepository.saveTransaction()).isEqualTo(TransactionState.NONE);
+        assertThat(probeRepository.calculateTransaction()).isEqualTo(TransactionState.NONE);
+    }
+
+    @Test
+    public void modifyingAndStreamMethodsAreExcluded() {
+        assertThat(probeRepository.findModifyingTransaction()).isEqualTo(TransactionState.NONE);
+        assertThat(probeRepository.findStreamTransaction()).containsExactly(TransactionState.NONE);
+    }
+
+    @Test
+    public void existingTransactionIsUsed() {
+        TransactionState state = new TransactionTemplate(transactionManager)
+                .execute(status -> probeRepository.findTransaction());
+
+        assertThat(state).isEqualTo(TransactionState.READ_WRITE);
+    }
+
+    @Test
+    public void checkedExceptionIsUnwrapped() {
+        assertThatThrownBy(() -> probeRepository.findAndThrow())
+                .isExactlyInstanceOf(IOException.class)
+                .hasMessage("probe");
+    }
+
+    enum TransactionState {
+        NONE, READ_ONLY, READ_WRITE;
+
+        static TransactionState current() {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                return NONE;
+            }
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ_ONLY : READ_WRITE;
+        }
+    }
+
+    /*
+     * 메소드가 실행될 때의 트랜잭션 상태를 반환한다.
+     * */
+    @Repository
+    @ReadOnlyRepository
+    static class TransactionProbeRepository {
+
+        public TransactionState findTransaction() {
+            return TransactionState.current();
+        }
+
+        public TransactionState countTransaction() {
+            return TransactionState.current();
+        }
+
+        @ReadOnlyQuery
+        public TransactionState loadTransaction() {
+            return TransactionState.current();
+        }
+
+        public TransactionState saveTransaction() {
+            return TransactionState.current();
+        }
+
+        public TransactionState calculateTransaction() {
+            return TransactionState.current();
+        }
+
+        @Modifying
+        public TransactionState findModifyingTransaction() {
+            return TransactionState.current();
+        }
+
+        public Stream<TransactionState> findStreamTransaction() {
+            return Stream.of(TransactionState.current());
+        }
+
+        public TransactionState findAndThrow() throws IOException {
+            throw new IOException("probe");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package study.datajpa.repository.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.dto.ItemDto;
+import study.datajpa.entity.Item;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Shard 3개를 각각 다른 H2 메모리 DB로 만들어서 테스트한다. (애플리케이션 컨텍스트의 DataSource는 사용하지 않는다.)
+ * */
+class ShardedItemRepositoryTest {
+
+    private static final int SHARD_COUNT = 3;
+
+    private List<DataSource> dataSources;
+    private ShardedItemRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:item-shard-" + i + ";DB_CLOSE_DELAY=-1");
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(2);
+            dataSources.add(dataSource);
+        }
+        repository = new ShardedItemRepository(dataSources);
+        repository.createSchemaIfNotExists();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            new JdbcTemplate(dataSource).execute("drop table item");
+        }
+        repository.destroy();
+    }
+
+    @Test
+    public void insertAllSpreadsItemsAcrossShards() {
+        // when
+        int inserted = repository.insertAll(items(100), 10);
+
+        // then
+        assertThat(inserted).isEqualTo(100);
+        assertThat(repository.count()).isEqualTo(100);
+
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            int shard = i;
+            List<String> ids = new JdbcTemplate(dataSources.get(i)).queryForList("select id from item", String.class);
+            // 모든 Shard에 나눠서 저장되고, 각 id는 자신의 Shard에만 저장된다.
+            assertThat(ids).isNotEmpty();
+            assertThat(ids).allMatch(id -> repository.shardOf(id) == shard);
+        }
+    }
+
+    @Test
+    public void findByIdReadsOneShard() {
+        // given
+        repository.insertAll(items(10), 10);
+
+        // when, then
+        assertThat(repository.findById("item5")).map(ItemDto::getId).contains("item5");
+        assertThat(repository.findById("item5").get().getCreatedDate()).isNotNull();
+        assertThat(repository.findById("unknown")).isEmpty();
+    }
+
+    @Test
+    public void findAllMergesSortedShards() {
+        // given
+        repository.insertAll(items(30), 7);
+
+        // when
+        List<ItemDto> items = repository.findAll(Sort.by(Sort.Direction.DESC, "id"));
+
+        // then
+        List<String> expected = items(30).stream().map(Item::getId).sorted(Collections.reverseOrder()).collect(Collectors.toList());
+        assertThat(items).extracting(ItemDto::getId).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void paging() {
+        // given
+        repository.insertAll(items(25), 10);
+        List<String> expected = items(25).stream().map(Item::getId).sorted().collect(Collectors.toList());
+
+        // when
+        Page<ItemDto> first = repository.findAll(PageRequest.of(0, 10, Sort.by("id")));
+        Page<ItemDto> last = repository.findAll(PageRequest.of(2, 10, Sort.by("id")));
+
+        // then
+        assertThat(first.getTotalElements()).isEqualTo(25);
+        assertThat(first.getTotalPages()).isEqualTo(3);
+        assertThat(first.getContent()).extracting(ItemDto::getId).containsExactlyElementsOf(expected.subList(0, 10));
+        assertThat(last.getContent()).extracting(ItemDto::getId).containsExactlyElementsOf(expected.subList(20, 25));
+    }
+
+    @Test
+    public void pagingByNonUniquePropertyIsStable() {
+        // given
+        // 같은 insertAll로 저장한 Item은 createdDate가 모두 같으므로, id로 한 번 더 정렬되어야 한다.
+        repository.insertAll(items(25), 10);
+
+        // when
+        List<String> ids = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            repository.findAll(PageRequest.of(page, 10, Sort.by("createdDate")))
+                    .forEach(item -> ids.add(item.getId()));
+        }
+
+        // then
+        assertThat(ids).hasSize(25).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void rejectUnknownSortProperty() {
+        assertThatThrownBy(() -> repository.findAll(Sort.by("id; drop table item")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void duplicateIdFails() {
+        // given
+        repository.insertAll(items(5), 10);
+
+        // when, then
+        assertThatThrownBy(() -> repository.insertAll(items(1), 10))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private List<Item> items(int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new Item("item" + i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,131 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * 낙관적 락 충돌은 서로 다른 트랜잭션이 커밋해야 발생하므로 @Transactional을 사용하지 않는다.
+ * -> 다른 테스트에 영향을 주지 않도록 저장한 데이터는 직접 삭제한다.
+ * */
+@SpringBootTest
+class MemberServiceTest {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private OptimisticLockRetryExecutor retryExecutor;
+
+    @Autowired
+    private OptimisticLockStatistics statistics;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Team teamA;
+    private Team teamB;
+    private Member member;
+
+    @BeforeEach
+    public void setUp() {
+        teamA = teamRepository.save(new Team("lockTeamA"));
+        teamB = teamRepository.save(new Team("lockTeamB"));
+        member = memberRepository.save(new Member("lockMember", 10, teamA));
+        statistics.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        memberRepository.deleteById(member.getId());
+        teamRepository.deleteById(teamA.getId());
+        teamRepository.deleteById(teamB.getId());
+    }
+
+    @Test
+    public void changeUsernameAndTeam() {
+        // when
+        memberService.changeUsername(member.getId(), "lockMember2");
+        memberService.changeTeam(member.getId(), teamB.getId());
+
+        // then
+        Member findMember = memberRepository.findById(member.getId()).get();
+        assertThat(findMember.getUsername()).isEqualTo("lockMember2");
+        assertThat(findMember.getVersion()).isEqualTo(member.getVersion() + 2);
+
+        String teamName = new TransactionTemplate(transactionManager)
+                .execute(status -> memberRepository.findById(member.getId()).get().getTeam().getName());
+        assertThat(teamName).isEqualTo("lockTeamB");
+    }
+
+    @Test
+    public void retryOnConflict() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        retryExecutor.execute("test.retryOnConflict", () -> {
+            Member findMember = memberRepository.findById(member.getId()).get();
+            if (attempts.incrementAndGet() == 1) {
+                // 첫 번째 시도에서만, 다른 트랜잭션이 먼저 수정하고 커밋한다.
+                updateInNewTransaction("other");
+            }
+            findMember.changeUsername("mine");
+            return null;
+        });
+
+        // then
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(memberRepository.findById(member.getId()).get().getUsername()).isEqualTo("mine");
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> counters = (Map<String, Long>) statistics.snapshot().get("test.retryOnConflict");
+        assertThat(counters).containsEntry("conflicts", 1L).containsEntry("recovered", 1L).containsEntry("exhausted", 0L);
+    }
+
+    @Test
+    public void exhausted() {
+        // when, then
+        // 매번 충돌하면 maxAttempts(3) 만큼 시도한 후 예외를 던진다.
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retryExecutor.execute("test.exhausted", () -> {
+            Member findMember = memberRepository.findById(member.getId()).get();
+            updateInNewTransaction("other" + attempts.incrementAndGet());
+            findMember.changeUsername("mine");
+            return null;
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    private void updateInNewTransaction(String username) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        requiresNew.execute(status -> {
+            memberRepository.findById(member.getId()).get().changeUsername(username);
+            return null;
+        });
+    }
+}